@@ -0,0 +1,123 @@
+package com.excitel;
+
+import com.excitel.dto.RequestDTO;
+import com.excitel.dynamodbqueryhelp.PageTokenCodec;
+import com.excitel.model.BroadbandPlan;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog-shaped inputs shared by the benchmarks: plan items as DynamoDB returns them, with every attribute the
+ * admin API writes, all in the Broadband partition, and the listing requests the user API receives. Values repeat with different periods so
+ * that neighbouring plans differ in most attributes, as they do in the real catalog.
+ */
+public final class CatalogFixtures {
+
+    public static final String PLAN_TYPE = "Broadband";
+    private static final String[] CATEGORIES = {"Home", "Business", "Student", "Gaming"};
+    private static final String[] DATA = {"1000GB", "3000GB", "Unlimited"};
+    private static final String[] SPEEDS = {"50", "100", "200", "300", "500", "1000"};
+    private static final String[] VALIDITIES = {"28", "84", "180", "365"};
+    private static final List<List<String>> OTT = List.of(
+            List.of(),
+            List.of("Netflix"),
+            List.of("Netflix", "Prime"),
+            List.of("Netflix", "Prime", "Hotstar", "SonyLiv", "Zee5"));
+
+    private CatalogFixtures() {
+    }
+
+    /**
+     * @param count The number of plans
+     * @return Plan items, each with every attribute set
+     */
+    public static List<Map<String, AttributeValue>> planItems(int count) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, AttributeValue> item = new HashMap<>();
+            item.put("PlanType", s(PLAN_TYPE));
+            item.put("PlanID", s(planId(i)));
+            item.put("Active", s(i % 10 == 0 ? "False" : "True"));
+            item.put("Category", s(CATEGORIES[i % CATEGORIES.length]));
+            item.put("TotalData", s(DATA[i % DATA.length]));
+            item.put("Speed", s(SPEEDS[i % SPEEDS.length]));
+            item.put("Price", s(String.valueOf(199 + (i % 40) * 50)));
+            item.put("Validity", s(VALIDITIES[i % VALIDITIES.length]));
+            item.put("VoiceLimit", s("Unlimited"));
+            item.put("SMS", s(i % 2 == 0 ? "100/day" : "None"));
+            item.put("Limit", s(i % 3 == 0 ? "FUP 3300GB" : "None"));
+            item.put("OTT", list(OTT.get(i % OTT.size())));
+            item.put("CouponIDs", list(List.of("WELCOME" + (i % 7), "FEST" + (i % 5))));
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * @param count The number of plans
+     * @return The plans of {@link #planItems(int)} in their mapped form
+     */
+    public static List<BroadbandPlan> plans(int count) {
+        List<BroadbandPlan> plans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            plans.add(BroadbandPlan.builder()
+                    .planId(planId(i)).planType(PLAN_TYPE)
+                    .active(i % 10 == 0 ? "False" : "True").category(CATEGORIES[i % CATEGORIES.length])
+                    .data(DATA[i % DATA.length]).speed(SPEEDS[i % SPEEDS.length])
+                    .price(String.valueOf(199 + (i % 40) * 50)).validity(VALIDITIES[i % VALIDITIES.length])
+                    .voiceLimit("Unlimited").sms(i % 2 == 0 ? "100/day" : "None").limit(i % 3 == 0 ? "FUP 3300GB" : "None")
+                    .ott(OTT.get(i % OTT.size())).couponIds(List.of("WELCOME" + (i % 7), "FEST" + (i % 5)))
+                    .build());
+        }
+        return plans;
+    }
+
+    /**
+     * @return Listing requests, from a bare first page to a fully filtered page, a single plan and a next page
+     */
+    public static List<RequestDTO> listingRequests() {
+        List<RequestDTO> requests = new ArrayList<>();
+        requests.add(request(null, null, null, null));
+        requests.add(request("True", null, null, null));
+        requests.add(request("True", "Home", "Unlimited", "300"));
+        RequestDTO ranged = request("True", "Business", null, null);
+        ranged.setMinSpeed(100.0);
+        ranged.setMaxPrice(1500.0);
+        requests.add(ranged);
+        RequestDTO single = request(null, null, null, null);
+        single.setPlanId(planId(42));
+        requests.add(single);
+        RequestDTO nextPage = request("True", null, null, null);
+        nextPage.setNextToken(new PageTokenCodec().encode(plans(20).get(19)));
+        requests.add(nextPage);
+        return requests;
+    }
+
+    public static String planId(int i) {
+        return String.format("plan-%05d", i);
+    }
+
+    private static RequestDTO request(String active, String category, String data, String speed) {
+        RequestDTO request = new RequestDTO();
+        request.setType(PLAN_TYPE);
+        request.setActive(active);
+        request.setCategory(category);
+        request.setData(data);
+        request.setSpeed(speed);
+        request.setOffset(0);
+        request.setLimit(20);
+        return request;
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static AttributeValue list(List<String> values) {
+        return AttributeValue.builder().l(values.stream().map(CatalogFixtures::s).toList()).build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.excitel.catalog;
+
+import com.excitel.dto.RequestDTO;
+import com.excitel.dynamodbqueryhelp.QueryWrapper;
+import com.excitel.model.BroadbandPlan;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares answering a filtered listing from the catalog indexes with the current path, which reads the whole
+ * PlanType partition, maps every item and filters afterwards. The DynamoDB round trip and read capacity of the
+ * current path are not included, so it is only a lower bound for that path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanIndexBenchmark {
+
+    private static final String[] CATEGORIES = {"Home", "Business", "Student", "Gaming"};
+    private static final String[] DATA = {"1000GB", "3000GB", "Unlimited"};
+    private static final String[] SPEEDS = {"50", "100", "200", "300", "500", "1000"};
+
+    @Param({"100", "500", "2000"})
+    private int catalogSize;
+
+    private final QueryWrapper queryWrapper = new QueryWrapper();
+    private List<Map<String, AttributeValue>> partitionItems;
+    private PlanCatalogSnapshot snapshot;
+    private RequestDTO params;
+
+    @Setup
+    public void setUp() {
+        partitionItems = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Map<String, AttributeValue> item = new HashMap<>();
+            item.put("PlanType", AttributeValue.builder().s("Broadband").build());
+            item.put("PlanID", AttributeValue.builder().s(String.format("plan-%05d", i)).build());
+            item.put("Active", AttributeValue.builder().s(i % 10 == 0 ? "False" : "True").build());
+            item.put("Category", AttributeValue.builder().s(CATEGORIES[i % CATEGORIES.length]).build());
+            item.put("TotalData", AttributeValue.builder().s(DATA[i % DATA.length]).build());
+            item.put("Speed", AttributeValue.builder().s(SPEEDS[i % SPEEDS.length]).build());
+            item.put("Price", AttributeValue.builder().s(String.valueOf(199 + (i % 40) * 50)).build());
+            item.put("Validity", AttributeValue.builder().s("28").build());
+            item.put("OTT", AttributeValue.builder().l(AttributeValue.builder().s("Netflix").build()).build());
+            partitionItems.add(item);
+        }
+        List<BroadbandPlan> plans = partitionItems.stream().map(queryWrapper::mapToBroadbandPlan).toList();
+        snapshot = new PlanCatalogSnapshot(1, Instant.now(), plans);
+
+        params = new RequestDTO();
+        params.setActive("True");
+        params.setCategory("Home");
+        params.setData("Unlimited");
+        params.setMinSpeed(100.0);
+        params.setMaxPrice(1500.0);
+    }
+
+    @Benchmark
+    public List<BroadbandPlan> indexedSnapshotQuery() {
+        return snapshot.query(params);
+    }
+
+    @Benchmark
+    public List<BroadbandPlan> queryPlusFilter() {
+        List<BroadbandPlan> matches = new ArrayList<>();
+        for (Map<String, AttributeValue> item : partitionItems) {
+            BroadbandPlan plan = queryWrapper.mapToBroadbandPlan(item);
+            if (Objects.equals(params.getActive(), plan.getActive())
+                    && Objects.equals(params.getCategory(), plan.getCategory())
+                    && Objects.equals(params.getData(), plan.getData())
+                    && PlanIndex.inRanges(plan, params)) {
+                matches.add(plan);
+            }
+        }
+        return matches.subList(params.getOffset(), Math.min(params.getOffset() + params.getLimit(), matches.size()));
+    }
+}
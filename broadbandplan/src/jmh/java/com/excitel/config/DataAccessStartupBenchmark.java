@@ -0,0 +1,64 @@
+package com.excitel.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a cold start of the data-access configuration: each fork is a fresh JVM that starts a context with
+ * DynamoDBConfig and resolves the DynamoDB client, as application startup does. Besides the start time, the
+ * process RSS (Linux only) and the used heap right after the start are reported as secondary results.
+ * To compare against an older DynamoDBConfig, run the same benchmark on that revision:
+ * ./mvnw -Pjmh -DskipTests test-compile exec:exec -Djmh.args="DataAccessStartup"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class DataAccessStartupBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long rssKb;
+        public long usedHeapKb;
+    }
+
+    @Benchmark
+    public DynamoDbClient startDataAccess(Footprint footprint) throws IOException {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                    "amazon.dynamodb.endpoint", "http://localhost:8000",
+                    "amazon.aws.access-key", "local",
+                    "amazon.aws.secret-key", "local",
+                    "amazon.aws.region", "us-east-1")));
+            context.register(DynamoDBConfig.class);
+            context.refresh();
+            DynamoDbClient client = context.getBean(DynamoDbClient.class);
+            Runtime runtime = Runtime.getRuntime();
+            footprint.usedHeapKb = (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+            footprint.rssKb = rssKb();
+            return client;
+        }
+    }
+
+    private static long rssKb() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,80 @@
+package com.excitel.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serving a burst of concurrent blocking requests on a platform thread pool sized like Tomcat's default
+ * (200 threads) with one virtual thread per request, as the java21 profile does. Each request blocks for a
+ * simulated round trip to the auth service, Redis or DynamoDB. One operation is the whole burst, so the time
+ * per request is the score divided by concurrentRequests.
+ * With -prof gc, gc.alloc.rate.norm shows the heap used per burst, which includes the virtual thread stacks;
+ * platform thread stacks are reserved outside the heap, about 1 MB per pool thread.
+ * The virtual mode needs a Java 21 runtime:
+ * ./mvnw -Pjava21,jmh -DskipTests test-compile exec:exec -Djmh.args="ThreadModel -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"200", "1000", "5000"})
+    private int concurrentRequests;
+
+    @Param({"10"})
+    private int blockingMillis;
+
+    private ExecutorService platformPool;
+    private Executor executor;
+
+    @Setup
+    public void setUp() {
+        if (threads.equals("virtual")) {
+            ThreadFactory factory = new VirtualThreadTaskExecutor("request-").getVirtualThreadFactory();
+            executor = request -> factory.newThread(request).start();
+        } else {
+            platformPool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            executor = platformPool;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public long serveBurst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(blockingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return done.getCount();
+    }
+}
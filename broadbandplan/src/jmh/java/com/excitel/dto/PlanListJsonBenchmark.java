@@ -0,0 +1,52 @@
+package com.excitel.dto;
+
+import com.excitel.CatalogFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a plan listing response to JSON, as the controller does, and decodes it, as a client does, with an
+ * ObjectMapper configured like Spring Boot's. The Redis cache format is measured by CacheCodecBenchmark.
+ * The encoded size is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanListJsonBenchmark {
+
+    @Param({"20", "500", "2000"})
+    private int planCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private BroadbandPlanListDTO response;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        response = BroadbandPlanListDTO.builder()
+                .status(HttpStatus.OK)
+                .data(CatalogFixtures.plans(planCount))
+                .nextToken(null)
+                .build();
+        json = encode();
+        System.out.printf("%nplans=%d json=%d bytes%n", planCount, json.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public BroadbandPlanListDTO decode() throws IOException {
+        return objectMapper.readValue(json, BroadbandPlanListDTO.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.excitel.dynamodbqueryhelp;
+
+import com.excitel.CatalogFixtures;
+import com.excitel.model.BroadbandPlan;
+import com.excitel.optimize.SubscriptionFeignPlanService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a whole catalog of DynamoDB items to plans, as a catalog load or an unfiltered listing does: with
+ * QueryWrapper for listings and with SubscriptionFeignPlanService for subscription plan details, which also
+ * parses the numeric attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanMappingBenchmark {
+
+    @Param({"100", "500", "2000"})
+    private int catalogSize;
+
+    private final QueryWrapper queryWrapper = new QueryWrapper();
+    private final SubscriptionFeignPlanService subscriptionFeignPlanService = new SubscriptionFeignPlanService();
+    private List<Map<String, AttributeValue>> items;
+
+    @Setup
+    public void setUp() {
+        items = CatalogFixtures.planItems(catalogSize);
+    }
+
+    @Benchmark
+    public void mapToBroadbandPlan(Blackhole blackhole) {
+        for (Map<String, AttributeValue> item : items) {
+            BroadbandPlan plan = queryWrapper.mapToBroadbandPlan(item);
+            blackhole.consume(plan);
+        }
+    }
+
+    @Benchmark
+    public void mapToPlanDetail(Blackhole blackhole) {
+        for (Map<String, AttributeValue> item : items) {
+            BroadbandPlan plan = subscriptionFeignPlanService.mapToPlanDetail(item);
+            blackhole.consume(plan);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.excitel.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of request threads logging JSON lines to a file, directly through a synchronous appender against the
+ * MeteredAsyncAppender setup of logback-spring.xml. Eight threads log concurrently, as a loaded node would.
+ * Under sustained overload the async appender sheds INFO lines; the number dropped is printed after each trial,
+ * so the gain can be read against what was lost. The async-lossless variant never discards and blocks once the
+ * queue is full, so its score is the rate at which lines actually reach the file.
+ * ./mvnw -Pjmh -DskipTests test-compile exec:exec -Djmh.args="AsyncLogging"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class AsyncLoggingBenchmark {
+
+    @Param({"sync", "async", "async-lossless"})
+    private String appender;
+
+    @Param({"8192"})
+    private int queueSize;
+
+    private LoggerContext context;
+    private Logger logger;
+    private MeteredAsyncAppender asyncAppender;
+    private Path logFile;
+
+    @State(Scope.Thread)
+    public static class Request {
+        private final String requestId = UUID.randomUUID().toString();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        logFile = Files.createTempFile("broadbandplan", ".json");
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+        Appender<ILoggingEvent> attached = file;
+        if (appender.startsWith("async")) {
+            asyncAppender = new MeteredAsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setName("ASYNC");
+            asyncAppender.setQueueSize(queueSize);
+            asyncAppender.setDiscardingThreshold(appender.equals("async") ? queueSize / 5 : 0);
+            asyncAppender.addAppender(file);
+            asyncAppender.start();
+            attached = asyncAppender;
+        }
+        logger = context.getLogger("com.excitel.serviceimpl.user.BroadbandUserServiceImpl");
+        logger.setLevel(Level.INFO);
+        logger.addAppender(attached);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (asyncAppender != null) {
+            System.out.println("dropped " + asyncAppender.getDroppedCount() + " events");
+        }
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void logRequest(Request request) {
+        MDC.put("requestId", request.requestId);
+        try {
+            logger.info("Fetched {} plans for type {}", 12, "Standard");
+        } finally {
+            MDC.remove("requestId");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.excitel.redishelper;
+
+import com.excitel.CatalogFixtures;
+import com.excitel.model.BroadbandPlan;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous cache value path, which built a new ObjectMapper per call and stored the JSON text through
+ * JDK serialization, with the shared JSON and Smile codecs. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    private static final TypeReference<List<BroadbandPlan>> PLAN_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "2000"})
+    private int planCount;
+
+    private final CacheCodec jsonCodec = JacksonCacheCodec.json();
+    private final CacheCodec smileCodec = JacksonCacheCodec.smile();
+    private List<BroadbandPlan> plans;
+    private CachedPlans entry;
+    private byte[] legacyPayload;
+    private byte[] jsonPayload;
+    private byte[] smilePayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        plans = CatalogFixtures.plans(planCount);
+        entry = new CachedPlans(System.currentTimeMillis(), plans);
+        legacyPayload = legacyEncode();
+        jsonPayload = jsonCodec.encodePlans(entry);
+        smilePayload = smileCodec.encodePlans(entry);
+        System.out.printf("%nplans=%d legacy=%d bytes json=%d bytes smile=%d bytes%n",
+                planCount, legacyPayload.length, jsonPayload.length, smilePayload.length);
+    }
+
+    @Benchmark
+    public byte[] legacyEncode() throws IOException {
+        String json = new ObjectMapper().writeValueAsString(plans);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<BroadbandPlan> legacyDecode() throws IOException, ClassNotFoundException {
+        String json;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(legacyPayload))) {
+            json = (String) in.readObject();
+        }
+        return new ObjectMapper().readValue(json, PLAN_LIST);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonCodec.encodePlans(entry);
+    }
+
+    @Benchmark
+    public CachedPlans jsonDecode() {
+        return jsonCodec.decodePlans(jsonPayload);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() {
+        return smileCodec.encodePlans(entry);
+    }
+
+    @Benchmark
+    public CachedPlans smileDecode() {
+        return smileCodec.decodePlans(smilePayload);
+    }
+}
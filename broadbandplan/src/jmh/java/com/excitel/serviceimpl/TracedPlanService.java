@@ -0,0 +1,11 @@
+package com.excitel.serviceimpl;
+
+/**
+ * A service in the package the tracing and logging aspects advise, for {@link TracingOverheadBenchmark}.
+ */
+public class TracedPlanService {
+
+    public int planCount(int offset) {
+        return offset + 1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.excitel.serviceimpl;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.excitel.tracing.TracingAspect;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of the service and controller advice: the INFO logging AspectLogging used to attach to every
+ * call, against the sampled TracingAspect at several sample rates, and against no advice at all.
+ * Logging goes through Spring Boot's default console pattern into a discarding stream, so the scores leave out the
+ * console or file I/O a deployment adds on top. With -prof gc, gc.alloc.rate.norm shows that tracing allocates
+ * nothing per call when sampling is off.
+ * ./mvnw -Pjmh -DskipTests test-compile exec:exec -Djmh.args="TracingOverhead -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingOverheadBenchmark {
+
+    @Param({"none", "logging", "tracing-0", "tracing-0.01", "tracing-1"})
+    private String advice;
+
+    private TracedPlanService service;
+    private int offset;
+
+    @Setup
+    public void setUp() {
+        discardLogOutput();
+        TracedPlanService target = new TracedPlanService();
+        if (advice.equals("none")) {
+            service = target;
+            return;
+        }
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        if (advice.equals("logging")) {
+            factory.addAspect(new PerCallLogging());
+        } else {
+            TracingAspect tracingAspect = new TracingAspect();
+            tracingAspect.configure(Double.parseDouble(advice.substring("tracing-".length())), 4096);
+            factory.addAspect(tracingAspect);
+        }
+        service = factory.getProxy();
+    }
+
+    @Benchmark
+    public int call() {
+        return service.planCount(offset++);
+    }
+
+    private static void discardLogOutput() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+
+    /**
+     * The per-call advice AspectLogging attached to every controller and service method before sampled tracing.
+     */
+    @Aspect
+    public static class PerCallLogging {
+
+        private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+        @Before("execution(* com.excitel.controller..*.*(..)) || execution(* com.excitel.serviceimpl..*.*(..))")
+        public void logControllerMethodCall(JoinPoint joinPoint) {
+            String methodName = joinPoint.getSignature().toShortString();
+            logger.info("Calling method: {}", methodName);
+        }
+
+        @After("execution(* com.excitel.controller..*.*(..)) || execution(* com.excitel.serviceimpl..*.*(..))")
+        public void afterControllerMethodCall(JoinPoint joinPoint) {
+            String methodName = joinPoint.getSignature().toShortString();
+            logger.info("Completed call to method: {}", methodName);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.excitel.serviceimpl.user;
+
+import com.excitel.CatalogFixtures;
+import com.excitel.dto.RequestDTO;
+import com.excitel.dynamodbqueryhelp.PageTokenCodec;
+import com.excitel.redishelper.BroadbandRedis;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request work of a plan listing before any cache or database is reached: building the cache key and
+ * the DynamoDB query for a mix of listing requests. One operation handles every request of the mix once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingRequestBenchmark {
+
+    private final BroadbandRedis broadbandRedis = new BroadbandRedis();
+    private final BroadbandUserServiceImpl broadbandUserService = new BroadbandUserServiceImpl();
+    private List<RequestDTO> requests;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(broadbandUserService, "pageTokenCodec", new PageTokenCodec());
+        requests = CatalogFixtures.listingRequests();
+    }
+
+    @Benchmark
+    public void createRedisKey(Blackhole blackhole) {
+        for (RequestDTO request : requests) {
+            blackhole.consume(broadbandRedis.createRedisKey(request));
+        }
+    }
+
+    @Benchmark
+    public void buildQueryRequest(Blackhole blackhole) {
+        for (RequestDTO request : requests) {
+            blackhole.consume(broadbandUserService.buildQueryRequest(request));
+        }
+    }
+}
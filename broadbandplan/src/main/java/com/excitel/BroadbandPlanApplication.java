@@ -4,16 +4,24 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
+import java.util.Map;
+
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.excitel.external")
 @CrossOrigin(origins = "*")
 @EnableRetry
+@EnableScheduling
 public class BroadbandPlanApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BroadbandPlanApplication.class, args);
+		SpringApplication application = new SpringApplication(BroadbandPlanApplication.class);
+		// defaults only, the deployed configuration can still narrow or widen what is exposed
+		application.setDefaultProperties(Map.of(
+				"management.endpoints.web.exposure.include", "health,info,metrics,prometheus,spans"));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,85 @@
+package com.excitel.catalog;
+
+import com.excitel.redishelper.BroadbandRedis;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of the plan catalog as seen by HTTP clients, used as the validator for conditional requests.
+ * The version is the plan cache generation, which is shared by every node through Redis and bumped by each
+ * admin write, so the same catalog state carries the same ETag on every node. The last-modified time is the
+ * moment this node started serving the version.
+ * While this node still serves a catalog older than the generation, no validator is handed out.
+ */
+@Component
+public class CatalogVersion {
+
+    @Autowired //NOSONAR
+    private BroadbandRedis broadbandRedis;
+    @Autowired //NOSONAR
+    private PlanCatalog planCatalog;
+
+    private final AtomicReference<Stamp> current = new AtomicReference<>(new Stamp(0, nowInSeconds()));
+
+    /**
+     * A catalog version and the time this node started serving it.
+     *
+     * @param version      The plan cache generation
+     * @param lastModified Epoch millis, truncated to seconds as HTTP dates are
+     * @param valid        false after a write that could not advance the shared generation
+     */
+    public record Stamp(long version, long lastModified, boolean valid) {
+        Stamp(long version, long lastModified) {
+            this(version, lastModified, true);
+        }
+    }
+
+    /**
+     * Moves to a new version after an admin write, before the write is published to the local catalog.
+     * If the shared generation cannot be advanced, validators are withheld until it moves again, since an
+     * unchanged version would wrongly confirm the clients' copies.
+     *
+     * @return The generation the write moved to, or -1 if it could not be advanced
+     */
+    public long bump() {
+        long before = broadbandRedis.currentGeneration();
+        broadbandRedis.clearBroadbandCache();
+        long after = broadbandRedis.currentGeneration();
+        if (after > before) {
+            advance(after);
+            return after;
+        }
+        current.set(new Stamp(after, nowInSeconds(), false));
+        return -1;
+    }
+
+    /**
+     * @return The validators for the catalog this node serves, or null if none can be given right now
+     */
+    public Stamp current() {
+        long generation = broadbandRedis.currentGeneration();
+        Stamp stamp = current.get();
+        if (generation <= stamp.version()) {
+            return stamp.valid() ? stamp : null;
+        }
+        // without a catalog, reads go to Redis and DynamoDB, which are keyed by the generation already
+        if (!planCatalog.isLoaded() || planCatalog.isCurrent()) {
+            advance(generation);
+            return current.get();
+        }
+        // another node wrote and the catalog is still reloading, confirm no client copy until it is current
+        planCatalog.catchUp();
+        return null;
+    }
+
+    private void advance(long generation) {
+        current.accumulateAndGet(new Stamp(generation, nowInSeconds()),
+                (previous, next) -> next.version() > previous.version() ? next : previous);
+    }
+
+    private static long nowInSeconds() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+}
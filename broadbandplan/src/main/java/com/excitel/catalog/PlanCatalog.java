@@ -0,0 +1,190 @@
+package com.excitel.catalog;
+
+import com.excitel.dynamodbqueryhelp.QueryWrapper;
+import com.excitel.model.BroadbandPlan;
+import com.excitel.redishelper.BroadbandRedis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.excitel.constants.AppConstants.TABLE_NAME;
+
+/**
+ * In-process, copy-on-write catalog of every broadband plan.
+ * The whole table is loaded at startup and reloaded periodically; readers always see a complete,
+ * immutable snapshot that is swapped atomically.
+ * Each load remembers the plan cache generation it started at. When the shared generation moves on, through an
+ * invalidation message or a generation sync, the catalog reloads itself in the background and is not current
+ * until that reload has completed.
+ */
+@Component
+public class PlanCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanCatalog.class);
+
+    @Autowired //NOSONAR
+    private DynamoDbClient dynamoDbClient;
+    @Autowired //NOSONAR
+    private QueryWrapper queryWrapper;
+    @Autowired //NOSONAR
+    private BroadbandRedis broadbandRedis;
+    @Autowired //NOSONAR
+    @Qualifier("planRefreshExecutor")
+    private Executor planRefreshExecutor;
+    @Value("${broadband.catalog.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicReference<PlanCatalogSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong loadedGeneration = new AtomicLong(-1);
+    private final AtomicBoolean catchingUp = new AtomicBoolean();
+
+    /**
+     * Loads the catalog once the application is ready to serve traffic, and from then on follows the
+     * plan cache generation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        broadbandRedis.addGenerationListener(generation -> catchUp());
+        refresh();
+    }
+
+    /**
+     * Reloads the full plan table and swaps it in, so writes made through other nodes become visible.
+     */
+    @Scheduled(fixedDelayString = "${broadband.catalog.refresh-interval-ms:60000}",
+            initialDelayString = "${broadband.catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        reload();
+    }
+
+    /**
+     * Reloads the catalog on the refresh executor, unless a reload is already running. A reload that completes
+     * while the generation has moved on again is followed by another one; a failed reload is retried by the next
+     * trigger or the periodic refresh.
+     */
+    public void catchUp() {
+        if (!enabled || !catchingUp.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            planRefreshExecutor.execute(() -> {
+                boolean reloaded;
+                try {
+                    reloaded = reload();
+                } finally {
+                    catchingUp.set(false);
+                }
+                if (reloaded && !isCurrent()) {
+                    catchUp();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            catchingUp.set(false);
+        }
+    }
+
+    private boolean reload() {
+        if (!enabled) {
+            return false;
+        }
+        // read first, so a write landing during the scan leaves the catalog behind rather than marked current
+        long generation = broadbandRedis.currentGeneration();
+        PlanCatalogSnapshot current = snapshot.get();
+        try {
+            List<BroadbandPlan> plans = scanAllPlans();
+            long version = current != null ? current.getVersion() + 1 : 1;
+            if (snapshot.compareAndSet(current, new PlanCatalogSnapshot(version, Instant.now(), plans))) {
+                loadedGeneration.accumulateAndGet(generation, Math::max);
+                log.info("Plan catalog loaded with {} plans, version {}", plans.size(), version);
+                return true;
+            }
+            log.debug("Plan catalog changed while reloading, keeping the newer snapshot");
+        } catch (SdkException exception) { // keep serving the previous snapshot, or fall back to DynamoDB
+            log.error("Error loading plan catalog : {}", exception.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Publishes a new snapshot version containing the given plan, replacing any plan with the same key.
+     * A catalog that was current just before the write is current at the write's generation right away.
+     * Otherwise it stays behind until the reload triggered by the generation change completes.
+     *
+     * @param plan       The plan written by an admin operation
+     * @param generation The plan cache generation the write moved to, or -1 if it could not be advanced
+     */
+    public void publish(BroadbandPlan plan, long generation) {
+        if (plan == null) {
+            return;
+        }
+        PlanCatalogSnapshot updated = snapshot.updateAndGet(current -> current != null ? current.withPlan(plan) : null);
+        if (updated == null) {
+            return;
+        }
+        if (generation >= 0) {
+            loadedGeneration.accumulateAndGet(generation,
+                    (loaded, written) -> loaded >= written - 1 ? Math.max(loaded, written) : loaded);
+        }
+        log.debug("Published plan catalog version {}", updated.getVersion());
+    }
+
+    /**
+     * @return true once a snapshot has been loaded and can answer queries
+     */
+    public boolean isLoaded() {
+        return snapshot.get() != null;
+    }
+
+    /**
+     * @return true once a snapshot has been loaded at the current plan cache generation, so it reflects every
+     * write made through any node
+     */
+    public boolean isCurrent() {
+        return snapshot.get() != null && loadedGeneration.get() >= broadbandRedis.currentGeneration();
+    }
+
+    /**
+     * @return The current snapshot, or null if the catalog has not been loaded yet
+     */
+    public PlanCatalogSnapshot current() {
+        return snapshot.get();
+    }
+
+    private List<BroadbandPlan> scanAllPlans() {
+        List<BroadbandPlan> plans = new ArrayList<>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        do {
+            ScanRequest.Builder scanRequest = ScanRequest.builder().tableName(TABLE_NAME.getValue());
+            if (lastEvaluatedKey != null) {
+                scanRequest.exclusiveStartKey(lastEvaluatedKey);
+            }
+            ScanResponse response = dynamoDbClient.scan(scanRequest.build());
+            for (Map<String, AttributeValue> item : response.items()) {
+                plans.add(queryWrapper.mapToBroadbandPlan(item));
+            }
+            lastEvaluatedKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+        } while (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+        return plans;
+    }
+}
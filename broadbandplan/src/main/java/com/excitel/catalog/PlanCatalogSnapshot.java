@@ -0,0 +1,119 @@
+package com.excitel.catalog;
+
+import com.excitel.dto.RequestDTO;
+import com.excitel.model.BroadbandPlan;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, point-in-time view of every row in the plan table.
+ * Plans are kept in (PlanType, PlanID) order, the same order a DynamoDB query on the table returns them.
+ */
+public final class PlanCatalogSnapshot {
+
+    static final Comparator<BroadbandPlan> KEY_ORDER = Comparator
+            .comparing(BroadbandPlan::getPlanType, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(BroadbandPlan::getPlanId, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    private final long version;
+    private final Instant loadedAt;
+    private final List<BroadbandPlan> plans;
+    private final PlanIndex index;
+
+    PlanCatalogSnapshot(long version, Instant loadedAt, List<BroadbandPlan> plans) {
+        List<BroadbandPlan> sorted = new ArrayList<>(plans);
+        sorted.sort(KEY_ORDER);
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.plans = Collections.unmodifiableList(sorted);
+        this.index = new PlanIndex(this.plans);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public List<BroadbandPlan> getPlans() {
+        return plans;
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * Returns a new snapshot with the given plan inserted, or replacing the plan with the same key.
+     *
+     * @param plan The plan to insert or replace
+     * @return A new snapshot one version ahead of this one
+     */
+    public PlanCatalogSnapshot withPlan(BroadbandPlan plan) {
+        List<BroadbandPlan> copy = new ArrayList<>(plans.size() + 1);
+        for (BroadbandPlan existing : plans) {
+            if (!sameKey(existing, plan)) {
+                copy.add(existing);
+            }
+        }
+        copy.add(plan);
+        return new PlanCatalogSnapshot(version + 1, Instant.now(), copy);
+    }
+
+    /**
+     * Filters the snapshot by intersecting its secondary indexes, then paginates the matches in key order.
+     *
+     * @param params The request parameters
+     * @return The matching plans for the requested offset/limit window
+     */
+    public List<BroadbandPlan> query(RequestDTO params) {
+        return query(params, null);
+    }
+
+    /**
+     * Filters the snapshot and returns the page that starts right after the given key.
+     * When a key is given the offset is ignored, the key alone positions the page.
+     *
+     * @param params The request parameters
+     * @param after  The key of the last plan of the previous page, or null to start from the offset
+     * @return The matching plans for the requested page
+     */
+    public List<BroadbandPlan> query(RequestDTO params, BroadbandPlan after) {
+        int offset = params.getOffset() != null ? Math.max(params.getOffset(), 0) : 0;
+        int limit = params.getLimit() != null ? Math.max(params.getLimit(), 0) : Integer.MAX_VALUE;
+        BitSet matches = index.select(params);
+        List<BroadbandPlan> result = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        int position;
+        if (after != null) {
+            position = matches.nextSetBit(positionAfter(after));
+        } else {
+            position = matches.nextSetBit(0);
+            for (int skipped = 0; position >= 0 && skipped < offset; skipped++) {
+                position = matches.nextSetBit(position + 1);
+            }
+        }
+        while (position >= 0 && result.size() < limit) {
+            result.add(plans.get(position));
+            position = matches.nextSetBit(position + 1);
+        }
+        return result;
+    }
+
+    // first position whose key sorts after the given key
+    private int positionAfter(BroadbandPlan key) {
+        int found = Collections.binarySearch(plans, key, KEY_ORDER);
+        return found >= 0 ? found + 1 : -(found + 1);
+    }
+
+    private static boolean sameKey(BroadbandPlan a, BroadbandPlan b) {
+        return Objects.equals(a.getPlanType(), b.getPlanType()) && Objects.equals(a.getPlanId(), b.getPlanId());
+    }
+}
@@ -0,0 +1,199 @@
+package com.excitel.catalog;
+
+import com.excitel.dto.RequestDTO;
+import com.excitel.model.BroadbandPlan;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Secondary indexes over a catalog snapshot.
+ * Equality filters are answered with one bitmap per distinct attribute value, numeric ranges with a sorted array
+ * of (value, position) pairs, and a combination of filters by intersecting the resulting bitmaps.
+ */
+public final class PlanIndex {
+
+    private final int size;
+    private final Map<String, BitSet> byType;
+    private final Map<String, BitSet> byPlanId;
+    private final Map<String, BitSet> byActive;
+    private final Map<String, BitSet> bySpeed;
+    private final Map<String, BitSet> byCategory;
+    private final Map<String, BitSet> byData;
+    private final SortedColumn speedColumn;
+    private final SortedColumn priceColumn;
+
+    PlanIndex(List<BroadbandPlan> plans) {
+        this.size = plans.size();
+        this.byType = bitmaps(plans, BroadbandPlan::getPlanType);
+        this.byPlanId = bitmaps(plans, BroadbandPlan::getPlanId);
+        this.byActive = bitmaps(plans, BroadbandPlan::getActive);
+        this.bySpeed = bitmaps(plans, BroadbandPlan::getSpeed);
+        this.byCategory = bitmaps(plans, BroadbandPlan::getCategory);
+        this.byData = bitmaps(plans, BroadbandPlan::getData);
+        this.speedColumn = new SortedColumn(plans, BroadbandPlan::getSpeed);
+        this.priceColumn = new SortedColumn(plans, BroadbandPlan::getPrice);
+    }
+
+    /**
+     * Selects the positions of every plan matching all filters present in the request.
+     *
+     * @param params The request parameters
+     * @return A bitmap of matching positions in snapshot order
+     */
+    public BitSet select(RequestDTO params) {
+        BitSet result = new BitSet(size);
+        result.set(0, size);
+        if (!intersect(result, byType, params.getType())
+                || !intersect(result, byPlanId, params.getPlanId())
+                || !intersect(result, byActive, params.getActive())
+                || !intersect(result, bySpeed, params.getSpeed())
+                || !intersect(result, byCategory, params.getCategory())
+                || !intersect(result, byData, params.getData())) {
+            return new BitSet();
+        }
+        if (params.getMinSpeed() != null || params.getMaxSpeed() != null) {
+            result.and(speedColumn.range(params.getMinSpeed(), params.getMaxSpeed()));
+        }
+        if (params.getMinPrice() != null || params.getMaxPrice() != null) {
+            result.and(priceColumn.range(params.getMinPrice(), params.getMaxPrice()));
+        }
+        return result;
+    }
+
+    /**
+     * Checks the numeric speed and price ranges of a request against a single plan.
+     * Used where plans are filtered one by one instead of through the index.
+     *
+     * @param plan   The plan to check
+     * @param params The request parameters
+     * @return true if the plan is within every requested range
+     */
+    public static boolean inRanges(BroadbandPlan plan, RequestDTO params) {
+        return inRange(numericValue(plan.getSpeed()), params.getMinSpeed(), params.getMaxSpeed())
+                && inRange(numericValue(plan.getPrice()), params.getMinPrice(), params.getMaxPrice());
+    }
+
+    /**
+     * Parses the leading number of an attribute such as "100" or "100Mbps".
+     *
+     * @param value The attribute value
+     * @return The numeric value, or NaN if the attribute does not start with a number
+     */
+    static double numericValue(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        String trimmed = value.trim();
+        int end = 0;
+        while (end < trimmed.length() && (Character.isDigit(trimmed.charAt(end)) || trimmed.charAt(end) == '.')) {
+            end++;
+        }
+        try {
+            return end == 0 ? Double.NaN : Double.parseDouble(trimmed.substring(0, end));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean inRange(double value, Double min, Double max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return !Double.isNaN(value) && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static boolean intersect(BitSet result, Map<String, BitSet> index, String value) {
+        if (value == null) {
+            return true;
+        }
+        BitSet matches = index.get(value);
+        if (matches == null) {
+            return false;
+        }
+        result.and(matches);
+        return true;
+    }
+
+    private static Map<String, BitSet> bitmaps(List<BroadbandPlan> plans, Function<BroadbandPlan, String> attribute) {
+        Map<String, BitSet> index = new HashMap<>();
+        for (int i = 0; i < plans.size(); i++) {
+            String value = attribute.apply(plans.get(i));
+            if (value != null) {
+                index.computeIfAbsent(value, v -> new BitSet(plans.size())).set(i);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Numeric attribute values sorted ascending, each paired with the position of its plan.
+     */
+    private static final class SortedColumn {
+        private final double[] values;
+        private final int[] positions;
+
+        SortedColumn(List<BroadbandPlan> plans, Function<BroadbandPlan, String> attribute) {
+            int[] source = new int[plans.size()];
+            double[] parsed = new double[plans.size()];
+            int count = 0;
+            for (int i = 0; i < plans.size(); i++) {
+                double value = numericValue(attribute.apply(plans.get(i)));
+                if (!Double.isNaN(value)) {
+                    parsed[count] = value;
+                    source[count] = i;
+                    count++;
+                }
+            }
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(parsed[a], parsed[b]));
+            this.values = new double[count];
+            this.positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = parsed[order[i]];
+                positions[i] = source[order[i]];
+            }
+        }
+
+        BitSet range(Double min, Double max) {
+            int from = min != null ? lowerBound(min) : 0;
+            int to = max != null ? upperBound(max) : values.length;
+            BitSet result = new BitSet();
+            for (int i = from; i < to; i++) {
+                result.set(positions[i]);
+            }
+            return result;
+        }
+
+        // first index whose value is >= key
+        private int lowerBound(double key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < key) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        // first index whose value is > key
+        private int upperBound(double key) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= key) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+    }
+}
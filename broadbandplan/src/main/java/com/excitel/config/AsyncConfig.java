@@ -0,0 +1,78 @@
+package com.excitel.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for work taken off the request thread.
+ * With spring.threads.virtual.enabled on a Java 21 runtime (the java21 build profile), Tomcat serves requests on
+ * virtual threads and these pools run their tasks on virtual threads as well. The pools keep their sizes and
+ * queues, as those bound the load put on Redis and DynamoDB rather than the number of threads.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Autowired //NOSONAR
+    private Environment environment;
+
+    @Value("${broadband.cache.refresh.pool-size:2}")
+    private int refreshPoolSize;
+
+    @Value("${broadband.cache.refresh.queue-capacity:100}")
+    private int refreshQueueCapacity;
+
+    @Value("${broadband.batch.pool-size:8}")
+    private int batchPoolSize;
+
+    @Value("${broadband.batch.queue-capacity:64}")
+    private int batchQueueCapacity;
+
+    /**
+     * Small bounded pool for refreshing stale plan listings off the request thread.
+     * When the queue is full the refresh is dropped, the stale entry is served until a later read retries it.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor planRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshPoolSize);
+        executor.setMaxPoolSize(refreshPoolSize);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("plan-refresh-");
+        useVirtualThreads(executor);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Bounded pool for reading BatchGetItem chunks concurrently.
+     * When it is saturated a chunk is rejected and its lookup fails with a DatabaseConnectionException, so a blocking
+     * DynamoDB call never runs on the thread that submitted it, which may be a request or timer thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor planBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchPoolSize);
+        executor.setMaxPoolSize(batchPoolSize);
+        executor.setQueueCapacity(batchQueueCapacity);
+        executor.setThreadNamePrefix("plan-batch-");
+        useVirtualThreads(executor);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Threading.VIRTUAL is only active on Java 21 or later, so a Java 17 runtime keeps platform threads
+    private void useVirtualThreads(ThreadPoolTaskExecutor executor) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(executor.getThreadNamePrefix()).getVirtualThreadFactory());
+        }
+    }
+}
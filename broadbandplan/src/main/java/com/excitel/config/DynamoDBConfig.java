@@ -1,21 +1,26 @@
 package com.excitel.config;
 
-import com.amazonaws.auth.*;
-import com.amazonaws.client.builder.*;
-import com.amazonaws.services.dynamodbv2.*;
-import org.socialsignin.spring.data.dynamodb.repository.config.*;
 import org.springframework.context.annotation.*;
 import org.springframework.beans.factory.annotation.Value;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.builder.SdkClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
+import java.net.URI;
+import java.time.Duration;
+
 /**
  * Configuration of AWS DynamoDB Connection
+ * Both DynamoDB clients use the configured region and endpoint, so a local DynamoDB stand-in gets the same
+ * pool and timeout tuning as the real table. Their connection pool figures are exposed through Actuator.
  */
 @Configuration
-@EnableDynamoDBRepositories(basePackages = "com.excitel.repository")
 public class DynamoDBConfig {
     @Value("${amazon.dynamodb.endpoint}")
     private String amazonDynamoDBEndpoint;
@@ -25,26 +30,126 @@ public class DynamoDBConfig {
     private String amazonAWSSecretKey;
     @Value("${amazon.aws.region}")
     private String region;
+    @Value("${amazon.dynamodb.http.max-connections:100}")
+    private int maxConnections;
+    @Value("${amazon.dynamodb.http.connection-ttl-ms:60000}")
+    private long connectionTtlMs;
+    @Value("${amazon.dynamodb.http.max-idle-ms:30000}")
+    private long connectionMaxIdleMs;
+    @Value("${amazon.dynamodb.http.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+    @Value("${amazon.dynamodb.http.connection-timeout-ms:1000}")
+    private long connectionTimeoutMs;
+    @Value("${amazon.dynamodb.http.socket-timeout-ms:5000}")
+    private long socketTimeoutMs;
+    @Value("${amazon.dynamodb.http.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+    @Value("${amazon.dynamodb.api-call-timeout-ms:10000}")
+    private long apiCallTimeoutMs;
+    @Value("${amazon.dynamodb.api-call-attempt-timeout-ms:3000}")
+    private long apiCallAttemptTimeoutMs;
+    @Value("${amazon.dynamodb.async.max-concurrency:200}")
+    private int asyncMaxConcurrency;
     /**
-     * Configures and creates an instance of AmazonDynamoDB using the provided endpoint, access key, and secret key.
+     * Configures the blocking DynamoDB client on a pooled Apache HTTP client.
+     * Connections are recycled after their TTL, so the pool follows DynamoDB endpoint changes, and idle
+     * connections are kept open with TCP keep-alive instead of being re-established per burst.
      *
-     * @return An AmazonDynamoDB instance
+     * @return A DynamoDbClient instance
      */
     @Bean
-    public AmazonDynamoDB amazonDynamoDB() {
-        return AmazonDynamoDBClientBuilder.standard()
-                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(amazonDynamoDBEndpoint, region))
-                .withCredentials(new AWSStaticCredentialsProvider(
-                        new BasicAWSCredentials(amazonAWSAccessKey, amazonAWSSecretKey)))
+    public DynamoDbClient dynamoDbClient(){
+        return withEndpoint(DynamoDbClient.builder())
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .overrideConfiguration(overrideConfiguration(dynamoDbPoolMetrics(), dynamoDbCallMetrics()))
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                        .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs))
+                        .useIdleConnectionReaper(true)
+                        .tcpKeepAlive(tcpKeepAlive)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                        .socketTimeout(Duration.ofMillis(socketTimeoutMs))
+                        .connectionAcquisitionTimeout(Duration.ofMillis(acquireTimeoutMs)))
                 .build();
     }
+
+    /**
+     * Configures the non-blocking DynamoDB client, backed by the Netty NIO HTTP client.
+     * Requests wait on a small pool of event loop threads instead of holding one thread each,
+     * and the number of requests in flight is capped by the connection pool size.
+     *
+     * @return A DynamoDbAsyncClient instance
+     */
     @Bean
-    public DynamoDbClient dynamoDbClient(){
-        AwsBasicCredentials awsCreds = AwsBasicCredentials.create(amazonAWSAccessKey, amazonAWSSecretKey);
-        return DynamoDbClient.builder()
-                .region(Region.US_EAST_1)
-                .credentialsProvider(StaticCredentialsProvider.create(awsCreds))
+    public DynamoDbAsyncClient dynamoDbAsyncClient() {
+        return withEndpoint(DynamoDbAsyncClient.builder())
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .overrideConfiguration(overrideConfiguration(dynamoDbAsyncPoolMetrics(), dynamoDbAsyncCallMetrics()))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxConcurrency)
+                        .connectionTimeToLive(Duration.ofMillis(connectionTtlMs))
+                        .connectionMaxIdleTime(Duration.ofMillis(connectionMaxIdleMs))
+                        .tcpKeepAlive(tcpKeepAlive)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+                        .readTimeout(Duration.ofMillis(socketTimeoutMs))
+                        .connectionAcquisitionTimeout(Duration.ofMillis(acquireTimeoutMs)))
                 .build();
     }
+
+    @Bean
+    public DynamoDbPoolMetrics dynamoDbPoolMetrics() {
+        return new DynamoDbPoolMetrics("sync");
+    }
+
+    @Bean
+    public DynamoDbPoolMetrics dynamoDbAsyncPoolMetrics() {
+        return new DynamoDbPoolMetrics("async");
+    }
+
+    @Bean
+    public DynamoDbCallMetrics dynamoDbCallMetrics() {
+        return new DynamoDbCallMetrics("sync");
+    }
+
+    @Bean
+    public DynamoDbCallMetrics dynamoDbAsyncCallMetrics() {
+        return new DynamoDbCallMetrics("async");
+    }
+
+    // an attempt timeout below the call timeout leaves room for the SDK to retry a slow attempt
+    private ClientOverrideConfiguration overrideConfiguration(DynamoDbPoolMetrics poolMetrics, DynamoDbCallMetrics callMetrics) {
+        return ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMillis(apiCallTimeoutMs))
+                .apiCallAttemptTimeout(Duration.ofMillis(apiCallAttemptTimeoutMs))
+                .addMetricPublisher(poolMetrics)
+                .addExecutionInterceptor(callMetrics)
+                .build();
+    }
+
+    // without a configured endpoint no override is set, and the SDK resolves the regional AWS endpoint itself
+    private <B extends SdkClientBuilder<B, ?>> B withEndpoint(B builder) {
+        URI endpoint = endpointUri(amazonDynamoDBEndpoint);
+        return endpoint != null ? builder.endpointOverride(endpoint) : builder;
+    }
+
+    private StaticCredentialsProvider credentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(amazonAWSAccessKey, amazonAWSSecretKey));
+    }
+
+    /**
+     * Resolves the configured endpoint, which may be given without a scheme.
+     *
+     * @param endpoint The configured endpoint, e.g. http://localhost:8000 or dynamodb.us-east-1.amazonaws.com
+     * @return The endpoint URI, or null to use the regional AWS endpoint
+     */
+    static URI endpointUri(String endpoint) {
+        if (endpoint == null || endpoint.isBlank()) {
+            return null;
+        }
+        String trimmed = endpoint.trim();
+        return URI.create(trimmed.contains("://") ? trimmed : "https://" + trimmed);
+    }
 }
- 
\ No newline at end of file
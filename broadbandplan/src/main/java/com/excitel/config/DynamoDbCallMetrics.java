@@ -0,0 +1,132 @@
+package com.excitel.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency, error and payload size metrics per DynamoDB operation, e.g. dynamodb.client.requests{operation=Query}.
+ * A call is timed from the moment the client accepts it until its result or final failure, so SDK retries
+ * are part of its latency. Payload sizes are recorded per attempt.
+ * Nothing is recorded until the meter registry binds this client. Each meter is registered on first use and kept
+ * for that registry, so a call only looks it up by its tags.
+ */
+public class DynamoDbCallMetrics implements ExecutionInterceptor, MeterBinder {
+
+    private static final ExecutionAttribute<Long> STARTED_AT = new ExecutionAttribute<>("DynamoDbCallMetrics.startedAt");
+
+    private final String client;
+    private volatile Meters meters;
+
+    public DynamoDbCallMetrics(String client) {
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meters = new Meters(registry);
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        Optional<Long> size = context.requestBody().map(RequestBody::contentLength);
+        if (size.isEmpty()) {
+            size = context.asyncRequestBody().flatMap(AsyncRequestBody::contentLength);
+        }
+        size.ifPresent(bytes -> recordSize("dynamodb.client.request.size", executionAttributes, bytes));
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        context.httpResponse().firstMatchingHeader("Content-Length")
+                .ifPresent(length -> recordSize("dynamodb.client.response.size", executionAttributes, Long.parseLong(length)));
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        recordCall(executionAttributes, "success");
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        recordCall(executionAttributes, "error");
+        Meters current = meters;
+        if (current != null) {
+            String operation = operation(executionAttributes);
+            String exception = context.exception().getClass().getSimpleName();
+            current.errors.computeIfAbsent(new MeterKey("dynamodb.client.errors", operation, exception),
+                            key -> Counter.builder(key.name())
+                                    .description("DynamoDB calls that failed after all retries")
+                                    .tags("client", client, "operation", operation, "exception", exception)
+                                    .register(current.registry))
+                    .increment();
+        }
+    }
+
+    private void recordCall(ExecutionAttributes executionAttributes, String outcome) {
+        Meters current = meters;
+        Long startedAt = executionAttributes.getAttribute(STARTED_AT);
+        if (current == null || startedAt == null) {
+            return;
+        }
+        String operation = operation(executionAttributes);
+        current.timers.computeIfAbsent(new MeterKey("dynamodb.client.requests", operation, outcome),
+                        key -> Timer.builder(key.name())
+                                .description("DynamoDB call latency, retries included")
+                                .tags("client", client, "operation", operation, "outcome", outcome)
+                                .publishPercentileHistogram()
+                                .register(current.registry))
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordSize(String name, ExecutionAttributes executionAttributes, long bytes) {
+        Meters current = meters;
+        if (current == null) {
+            return;
+        }
+        String operation = operation(executionAttributes);
+        current.sizes.computeIfAbsent(new MeterKey(name, operation, null),
+                        key -> DistributionSummary.builder(name)
+                                .baseUnit("bytes")
+                                .tags("client", client, "operation", operation)
+                                .publishPercentileHistogram()
+                                .register(current.registry))
+                .record(bytes);
+    }
+
+    private static String operation(ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        return operation != null ? operation : "unknown";
+    }
+
+    private record MeterKey(String name, String operation, String tag) {
+    }
+
+    // the meters registered with one registry, replaced as a whole when the client is bound to another
+    private record Meters(MeterRegistry registry, ConcurrentMap<MeterKey, Timer> timers,
+                          ConcurrentMap<MeterKey, Counter> errors, ConcurrentMap<MeterKey, DistributionSummary> sizes) {
+
+        Meters(MeterRegistry registry) {
+            this(registry, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.excitel.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pool gauges for a DynamoDB client, e.g. dynamodb.http.pool.leased{client=sync} at /actuator/metrics.
+ * The SDK reports the pool state with each call it makes, so the gauges show the state as of the latest call.
+ */
+public class DynamoDbPoolMetrics implements MetricPublisher, MeterBinder {
+
+    private final String client;
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicInteger max = new AtomicInteger();
+
+    public DynamoDbPoolMetrics(String client) {
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "leased", leased, "Connections currently in use");
+        gauge(registry, "pending", pending, "Requests waiting for a connection");
+        gauge(registry, "available", available, "Idle connections ready to be leased");
+        gauge(registry, "max", max, "Maximum number of connections");
+    }
+
+    private void gauge(MeterRegistry registry, String name, AtomicInteger value, String description) {
+        Gauge.builder("dynamodb.http.pool." + name, value, AtomicInteger::get)
+                .tag("client", client)
+                .description(description)
+                .register(registry);
+    }
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        record(metricCollection);
+    }
+
+    // the pool figures sit in the HTTP client collection, nested under each call attempt
+    private void record(MetricCollection collection) {
+        update(collection, HttpMetric.LEASED_CONCURRENCY, leased);
+        update(collection, HttpMetric.PENDING_CONCURRENCY_ACQUIRES, pending);
+        update(collection, HttpMetric.AVAILABLE_CONCURRENCY, available);
+        update(collection, HttpMetric.MAX_CONCURRENCY, max);
+        collection.children().forEach(this::record);
+    }
+
+    private static void update(MetricCollection collection, SdkMetric<Integer> metric, AtomicInteger target) {
+        List<Integer> values = collection.metricValues(metric);
+        if (!values.isEmpty()) {
+            target.set(values.get(values.size() - 1));
+        }
+    }
+
+    @Override
+    public void close() {
+        // nothing to release, the gauges live as long as the registry
+    }
+}
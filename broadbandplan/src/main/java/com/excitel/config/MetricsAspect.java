@@ -0,0 +1,181 @@
+package com.excitel.config;
+
+import com.excitel.dto.ResponseDTO;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency and error metrics for the Redis cache and the auth service, served at /actuator/prometheus.
+ * Redis operations are timed as broadband.redis.requests{operation=...}, including the near cache in front of Redis,
+ * and lookups count hits and misses per cache. Encoded cache values are measured as broadband.redis.payload.size.
+ * Token validations are timed as broadband.auth.requests{outcome=...}.
+ * Each meter is registered on first use and kept, so a call only looks it up by its tags.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private static final String OPERATION = "operation";
+    private static final String OUTCOME = "outcome";
+
+    @Autowired //NOSONAR
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, HitRatio> hitRatios = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> payloadSizes = new ConcurrentHashMap<>();
+
+    @Pointcut("execution(public * com.excitel.redishelper.BroadbandRedis.get*(..))"
+            + " || execution(public * com.excitel.redishelper.BroadbandRedis.add*(..))"
+            + " || execution(public * com.excitel.redishelper.BroadbandRedis.clear*(..))"
+            + " || execution(public * com.excitel.redishelper.BroadbandRedis.evict*(..))")
+    public void redisOperations() {}
+
+    @Pointcut("execution(* com.excitel.redishelper.CacheCodec.encode*(..))")
+    public void cacheEncodes() {}
+
+    @Pointcut("execution(* com.excitel.redishelper.CacheCodec.decode*(..)) && args(payload)")
+    public void cacheDecodes(byte[] payload) {}
+
+    @Pointcut("execution(* com.excitel.external.TokenValidation.isValid(..))")
+    public void tokenValidations() {}
+
+    @Around("redisOperations()")
+    public Object timeRedisOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(timer("broadband.redis.requests", operation, "success"));
+            if (operation.startsWith("get")) {
+                countLookup(operation, joinPoint.getArgs(), result);
+            }
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer("broadband.redis.requests", operation, "error"));
+            error("broadband.redis.errors", operation, e);
+            throw e;
+        }
+    }
+
+    @AfterReturning(pointcut = "cacheEncodes()", returning = "payload")
+    public void measureEncoded(JoinPoint joinPoint, byte[] payload) {
+        if (payload != null) {
+            payloadSize(joinPoint).record(payload.length);
+        }
+    }
+
+    @Before(value = "cacheDecodes(payload)", argNames = "joinPoint,payload")
+    public void measureDecoded(JoinPoint joinPoint, byte[] payload) {
+        if (payload != null) {
+            payloadSize(joinPoint).record(payload.length);
+        }
+    }
+
+    @Around("tokenValidations()")
+    public Object timeTokenValidation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(timer("broadband.auth.requests", "isValid", isValid(result) ? "valid" : "invalid"));
+            return result;
+        } catch (FeignException.FeignClientException e) { // the auth service answered, the token was rejected
+            sample.stop(timer("broadband.auth.requests", "isValid", "invalid"));
+            throw e;
+        } catch (Throwable e) {
+            sample.stop(timer("broadband.auth.requests", "isValid", "error"));
+            error("broadband.auth.errors", "isValid", e);
+            throw e;
+        }
+    }
+
+    // a listing or a connection is a hit when found, a plan detail lookup counts each requested ID
+    private void countLookup(String operation, Object[] args, Object result) {
+        HitRatio ratio = hitRatios.computeIfAbsent(operation, this::hitRatio);
+        if (result instanceof Map<?, ?> found && args.length > 1 && args[1] instanceof Collection<?> requested) {
+            ratio.record(found.size(), Math.max(0, requested.size() - found.size()));
+        } else if (result != null) {
+            ratio.record(1, 0);
+        } else {
+            ratio.record(0, 1);
+        }
+    }
+
+    private HitRatio hitRatio(String operation) {
+        HitRatio ratio = new HitRatio(
+                Counter.builder("broadband.redis.lookups").tags(OPERATION, operation, "result", "hit").register(meterRegistry),
+                Counter.builder("broadband.redis.lookups").tags(OPERATION, operation, "result", "miss").register(meterRegistry));
+        Gauge.builder("broadband.redis.hit.ratio", ratio, HitRatio::value)
+                .description("Share of lookups answered from the cache since start")
+                .tag(OPERATION, operation)
+                .register(meterRegistry);
+        return ratio;
+    }
+
+    private Timer timer(String name, String operation, String outcome) {
+        return timers.computeIfAbsent(new MeterKey(name, operation, outcome), key -> Timer.builder(name)
+                .tags(OPERATION, operation, OUTCOME, outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary payloadSize(JoinPoint joinPoint) {
+        return payloadSizes.computeIfAbsent(joinPoint.getSignature().getName(),
+                operation -> DistributionSummary.builder("broadband.redis.payload.size")
+                        .baseUnit("bytes")
+                        .tag(OPERATION, operation)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private void error(String name, String operation, Throwable e) {
+        String exception = e.getClass().getSimpleName();
+        errorCounters.computeIfAbsent(new MeterKey(name, operation, exception), key -> Counter.builder(name)
+                        .tags(OPERATION, operation, "exception", exception)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static boolean isValid(Object result) {
+        return result instanceof ResponseEntity<?> entity
+                && entity.getBody() instanceof ResponseDTO body
+                && body.getStatus() == HttpStatus.OK;
+    }
+
+    private record MeterKey(String name, String operation, String tag) {
+    }
+
+    private record HitRatio(Counter hits, Counter misses) {
+
+        void record(long hitCount, long missCount) {
+            hits.increment(hitCount);
+            misses.increment(missCount);
+        }
+
+        double value() {
+            double lookups = hits.count() + misses.count();
+            return lookups == 0 ? 0 : hits.count() / lookups;
+        }
+    }
+}
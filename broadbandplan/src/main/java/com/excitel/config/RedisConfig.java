@@ -1,5 +1,8 @@
 package com.excitel.config;
 
+import com.excitel.redishelper.BroadbandRedis;
+import com.excitel.redishelper.CacheCodec;
+import com.excitel.redishelper.JacksonCacheCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -9,8 +12,11 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
 
@@ -24,6 +30,9 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${broadband.cache.plans.ttl-seconds:600}")
+    private long plansTtlSeconds;
+
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
         return new LettuceConnectionFactory(redisHost, redisPort);
@@ -40,8 +49,29 @@ public class RedisConfig {
     public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig();
 
+        // values are already encoded by the CacheCodec, store its bytes as they are
+        RedisCacheConfiguration rawBytes = config.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.byteArray()));
+
+        // listing keys carry a generation stamp, entries of old generations are left to expire
         return RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration("BroadbandPlans", rawBytes.entryTtl(Duration.ofSeconds(plansTtlSeconds)))
+                .withCacheConfiguration("ConnectionDetail", rawBytes)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public CacheCodec cacheCodec(@Value("${broadband.cache.codec:smile}") String codec) {
+        return "json".equalsIgnoreCase(codec) ? JacksonCacheCodec.json() : JacksonCacheCodec.smile();
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                           BroadbandRedis broadbandRedis) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(broadbandRedis, new ChannelTopic(BroadbandRedis.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
\ No newline at end of file
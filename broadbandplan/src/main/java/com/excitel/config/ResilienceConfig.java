@@ -0,0 +1,84 @@
+package com.excitel.config;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker and bulkhead settings for calls to other services.
+ * Their state, call counts and failure rates are exposed as resilience4j.circuitbreaker.* and
+ * resilience4j.bulkhead.* metrics.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Value("${broadband.auth.breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${broadband.auth.breaker.slow-call-ms:1000}")
+    private long slowCallMs;
+
+    @Value("${broadband.auth.breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${broadband.auth.breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${broadband.auth.breaker.open-ms:10000}")
+    private long openMs;
+
+    @Value("${broadband.auth.bulkhead.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${broadband.auth.bulkhead.max-wait-ms:0}")
+    private long maxWaitMs;
+
+    /**
+     * Opens when half of the recent calls failed or were slow, and lets a few calls through to probe once the
+     * open period is over. A 4xx answer means the token was rejected, which is not an auth service failure.
+     */
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .waitDurationInOpenState(Duration.ofMillis(openMs))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build());
+    }
+
+    /**
+     * Rejects a call at once, by default, when the concurrency limit is reached rather than queueing its thread.
+     */
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+                .build());
+    }
+
+    @Bean
+    public TaggedCircuitBreakerMetrics circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry);
+    }
+
+    @Bean
+    public TaggedBulkheadMetrics bulkheadMetrics(BulkheadRegistry bulkheadRegistry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry);
+    }
+}
@@ -6,6 +6,8 @@ import com.excitel.optimize.SubscriptionFeignPlanService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
 /**
  * Controller class for handling user-related subscription plan operations.
  */
@@ -17,15 +19,15 @@ public class SubscriptionPlanController {
     private SubscriptionFeignPlanService subscriptionFeignPlanService;
 /**
  * Retrieves subscription plan details based on the plan ID list and plan type.
+ * The request thread is released while the plans are read, the response is written once they are in.
  *
  * @param requestBody The request body containing plan ID list and plan type
- * @return ResponseEntity containing either a success response with subscription plan details or an error response
+ * @return Future of the ResponseEntity containing either a success response with subscription plan details or an error response
  */
     @PostMapping("/subscription-plan-detail")
-    public ResponseEntity<ErrorResponseDTO.SubscriptionResponseDTO> getAllPlanByPlanIdList(@RequestBody RequestDTO.SubscriptionRequestDTO requestBody){
+    public CompletableFuture<ResponseEntity<ErrorResponseDTO.SubscriptionResponseDTO>> getAllPlanByPlanIdList(@RequestBody RequestDTO.SubscriptionRequestDTO requestBody){
         // Call the subscriptionFeignPlanService to get subscription plan details
-
-        ErrorResponseDTO.SubscriptionResponseDTO response = subscriptionFeignPlanService.getAllPlanByPlanIdList(requestBody.getPlanIdList(), requestBody.getPlanType());
-        return ResponseEntity.ok(response);
+        return subscriptionFeignPlanService.getAllPlanByPlanIdListAsync(requestBody.getPlanIdList(), requestBody.getPlanType())
+                .thenApply(ResponseEntity::ok);
     }
 }
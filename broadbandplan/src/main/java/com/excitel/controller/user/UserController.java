@@ -4,8 +4,8 @@ import com.excitel.dto.BroadbandConnectionDTO;
 import com.excitel.dto.BroadbandPlanListDTO;
 import com.excitel.dto.ConnectionResponseDTO;
 import com.excitel.dto.RequestDTO;
-import com.excitel.exception.custom.DuplicatePhoneNumberException;
 import com.excitel.model.BroadbandConnection;
+import com.excitel.model.BroadbandPlan;
 import com.excitel.service.user.BroadbandUserService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,7 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class for handling user-related broadband operations.
@@ -40,6 +41,7 @@ public class UserController {
     }
     /**
      * Retrieves broadband plans based on the provided parameters.
+     * Pages are continued by passing the returned nextToken back as a request parameter.
      *
      * @param params The request parameters for filtering broadband plans
      * @return ResponseEntity containing a list of broadband plans or an error response
@@ -48,9 +50,11 @@ public class UserController {
     @GetMapping
     public ResponseEntity<BroadbandPlanListDTO> getBroadbandPlans(@ModelAttribute RequestDTO params) {
         // Call the service to get broadband plans based on the provided parameters
+        List<BroadbandPlan> plans = broadbandUserService.getBroadbandPlanWithQuery(params);
         BroadbandPlanListDTO response = BroadbandPlanListDTO.builder()
                 .status(HttpStatus.OK)
-                .data(broadbandUserService.getBroadbandPlanWithQuery(params))
+                .data(plans)
+                .nextToken(broadbandUserService.getNextPageToken(params, plans))
                 .build();
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
@@ -73,31 +77,27 @@ public class UserController {
     }
     /**
      * Retrieves connection details for a user.
+     * The request thread is released while the connection is read, the response is written once it is in.
      *
      * @param request The HTTP servlet request
-     * @return ResponseEntity containing either connection details or an error response
+     * @return Future of the ResponseEntity containing either connection details or an error response
      */
     @GetMapping("/connection/me")
-    public ResponseEntity<ConnectionResponseDTO> getConnectionDetailsForUser(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<ConnectionResponseDTO>> getConnectionDetailsForUser(HttpServletRequest request) {
         String status = "Active";
         String mobileNumber = (String) request.getAttribute("mobileNumber");
-        try{
-            // Call the service to get connection details for the user
-
-            Optional<BroadbandConnection> broadbandConnection = Optional.ofNullable(broadbandUserService.getConnectionDetailsForUser(mobileNumber,status));
-            if (broadbandConnection.isPresent()) {
-                ConnectionResponseDTO response = ConnectionResponseDTO.builder()
-                        .status(HttpStatus.OK)
-                        .message("Connection fetched successfully")
-                        .broadbandConnection(broadbandConnection.get())
-                        .build();
-                return ResponseEntity.status(HttpStatus.OK).body(response);
-            }
-        }catch (DuplicatePhoneNumberException e){
-            // Handle duplicate phone number exception
-
-            throw new DuplicatePhoneNumberException(e.getMessage());
-        }
-        return null;
+        // Call the service to get connection details for the user, a failure reaches the exception handler unwrapped
+        return broadbandUserService.getConnectionDetailsForUserAsync(mobileNumber, status)
+                .thenApply(broadbandConnection -> {
+                    if (broadbandConnection == null) {
+                        return null;
+                    }
+                    ConnectionResponseDTO response = ConnectionResponseDTO.builder()
+                            .status(HttpStatus.OK)
+                            .message("Connection fetched successfully")
+                            .broadbandConnection(broadbandConnection)
+                            .build();
+                    return ResponseEntity.status(HttpStatus.OK).body(response);
+                });
     }
 }
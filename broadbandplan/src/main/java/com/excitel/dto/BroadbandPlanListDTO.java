@@ -14,4 +14,5 @@ import java.util.List;
 public class BroadbandPlanListDTO {
     private HttpStatus status;//NOSONAR
     private List<BroadbandPlan> data;//NOSONAR
+    private String nextToken;//NOSONAR
 }
@@ -19,6 +19,11 @@ public class RequestDTO {
     private String speed;//NOSONAR
     private Integer offset = 0;//NOSONAR
     private Integer limit = 10;//NOSONAR
+    private Double minSpeed;//NOSONAR
+    private Double maxSpeed;//NOSONAR
+    private Double minPrice;//NOSONAR
+    private Double maxPrice;//NOSONAR
+    private String nextToken;//NOSONAR
 
     @Getter
     @Setter
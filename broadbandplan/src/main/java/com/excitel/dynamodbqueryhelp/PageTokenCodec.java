@@ -0,0 +1,86 @@
+package com.excitel.dynamodbqueryhelp;
+
+import com.excitel.exception.custom.InvalidPageTokenException;
+import com.excitel.model.BroadbandPlan;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the opaque continuation tokens handed out with each page of plans.
+ * A token wraps the primary key (PlanType, PlanID) of the last plan on a page, which is the
+ * ExclusiveStartKey of the next page.
+ */
+@Component
+public class PageTokenCodec {
+
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Encodes the key of the given plan as a continuation token.
+     *
+     * @param plan The last plan of a page
+     * @return A URL-safe token
+     */
+    public String encode(BroadbandPlan plan) {
+        String key = nullToEmpty(plan.getPlanType()) + SEPARATOR + nullToEmpty(plan.getPlanId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token into a plan carrying only its key attributes.
+     *
+     * @param token The token received from the client, may be null
+     * @return A plan holding PlanType and PlanID, or null if no token was given
+     */
+    public BroadbandPlan decodeKey(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String key;
+        try {
+            key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException("Invalid page token: " + token);
+        }
+        int separator = key.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == key.length() - 1) {
+            throw new InvalidPageTokenException("Invalid page token: " + token);
+        }
+        BroadbandPlan plan = new BroadbandPlan();
+        plan.setPlanType(key.substring(0, separator));
+        plan.setPlanId(key.substring(separator + 1));
+        return plan;
+    }
+
+    /**
+     * Decodes a continuation token into the ExclusiveStartKey of a DynamoDB query.
+     * The start key has to lie in the partition being queried, so a token issued for another plan type, or
+     * sent without a plan type, is rejected here instead of failing the query.
+     *
+     * @param token    The token received from the client, may be null
+     * @param planType The plan type the query reads
+     * @return The start key, or null if no token was given
+     */
+    public Map<String, AttributeValue> toExclusiveStartKey(String token, String planType) {
+        BroadbandPlan key = decodeKey(token);
+        if (key == null) {
+            return null;
+        }
+        if (!key.getPlanType().equals(planType)) {
+            throw new InvalidPageTokenException("Invalid page token for plan type " + planType + ": " + token);
+        }
+        Map<String, AttributeValue> startKey = new HashMap<>();
+        startKey.put("PlanType", AttributeValue.builder().s(key.getPlanType()).build());
+        startKey.put("PlanID", AttributeValue.builder().s(key.getPlanId()).build());
+        return startKey;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
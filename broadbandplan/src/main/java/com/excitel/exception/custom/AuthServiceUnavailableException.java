@@ -0,0 +1,8 @@
+package com.excitel.exception.custom;
+
+public class AuthServiceUnavailableException extends RuntimeException{
+
+    public AuthServiceUnavailableException( String message, Throwable cause) {
+        super( message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.excitel.exception.custom;
+
+public class InvalidPageTokenException extends RuntimeException{
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+}
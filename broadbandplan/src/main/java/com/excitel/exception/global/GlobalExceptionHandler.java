@@ -3,6 +3,7 @@ package com.excitel.exception.global;
 import com.excitel.dto.ErrorResponseDTO;
 import com.excitel.exception.custom.DatabaseConnectionException;
 import com.excitel.exception.custom.DuplicatePhoneNumberException;
+import com.excitel.exception.custom.InvalidPageTokenException;
 import com.excitel.exception.custom.UserAccessDeniedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -51,4 +52,13 @@ public class GlobalExceptionHandler {
                 .build();
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
+
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ResponseEntity<ErrorResponseDTO> handleInvalidPageToken(InvalidPageTokenException ex) {
+        ErrorResponseDTO response = ErrorResponseDTO.builder()
+                .status(HttpStatus.BAD_REQUEST)
+                .errorMessage(ex.getMessage())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
 }
@@ -0,0 +1,60 @@
+package com.excitel.external;
+
+import com.excitel.dto.ResponseDTO;
+import com.excitel.exception.custom.AuthServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token validation calls guarded by a bulkhead and a circuit breaker.
+ * The bulkhead caps the number of request threads waiting on the auth service at once, and the breaker stops
+ * calling it while it keeps failing or answering slowly. In both cases the request fails at once with an
+ * AuthServiceUnavailableException instead of holding its thread for the retries and timeouts.
+ */
+@Component
+public class GuardedTokenValidation {
+
+    public static final String AUTH_SERVICE = "authService";
+
+    @Autowired //NOSONAR
+    private TokenValidation tokenValidation;
+
+    private CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults(AUTH_SERVICE);
+    private Bulkhead bulkhead = Bulkhead.ofDefaults(AUTH_SERVICE);
+
+    @Autowired
+    public void configure(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(AUTH_SERVICE);
+        this.bulkhead = bulkheadRegistry.bulkhead(AUTH_SERVICE);
+    }
+
+    /**
+     * Validates the provided token with the authentication service.
+     *
+     * @param token The authorization token
+     * @return ResponseEntity containing the validation response
+     * @throws AuthServiceUnavailableException if the breaker is open or too many validations are in flight
+     */
+    public ResponseEntity<ResponseDTO> isValid(String token) {
+        // the bulkhead is outside the breaker, so a saturated node does not count as a failing auth service
+        try {
+            return Bulkhead.decorateSupplier(bulkhead,
+                    CircuitBreaker.decorateSupplier(circuitBreaker, () -> tokenValidation.isValid(token))).get();
+        } catch (CallNotPermittedException e) {
+            throw new AuthServiceUnavailableException("Auth service circuit is open", e);
+        } catch (BulkheadFullException e) {
+            throw new AuthServiceUnavailableException("Too many token validations in flight", e);
+        }
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
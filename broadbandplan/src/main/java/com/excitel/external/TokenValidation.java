@@ -1,6 +1,7 @@
 package com.excitel.external;
 
 import com.excitel.dto.ResponseDTO;
+import feign.FeignException;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
@@ -10,10 +11,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 
 /**
  * Feign client for token validation.
+ * Callers go through GuardedTokenValidation, which adds the circuit breaker and bulkhead.
  */
 
 //@FeignClient(name = "AUTH-SERVICE",url = "${base_url_localhost}")
-@FeignClient(name = "AUTH-SERVICE", url = "${base-url-stage}")
+@FeignClient(name = "AUTH-SERVICE", url = "${base-url-stage}", configuration = TokenValidationFeignConfig.class)
 public interface TokenValidation {
     /**
      * Validates the provided token with the authentication service.
@@ -21,7 +23,10 @@ public interface TokenValidation {
      * @param token The authorization token
      * @return ResponseEntity containing the validation response
      */
-    @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    // a 4xx is an answer about the token, retrying it cannot change the outcome
+    @Retryable(maxAttemptsExpression = "${broadband.auth.retry.max-attempts:2}",
+            backoff = @Backoff(delayExpression = "${broadband.auth.retry.delay-ms:100}"),
+            noRetryFor = FeignException.FeignClientException.class)
     @GetMapping("/auth/check-token")
     ResponseEntity<ResponseDTO> isValid(@RequestHeader("Authorization") String token);
-}
\ No newline at end of file
+}
\ No newline at end of file
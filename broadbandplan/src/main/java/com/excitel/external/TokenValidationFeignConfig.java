@@ -0,0 +1,20 @@
+package com.excitel.external;
+
+import feign.Request;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign settings for the TokenValidation client only, so it is deliberately not a @Configuration.
+ * The timeouts apply to each attempt, so a retried validation is bounded by attempts times the timeouts.
+ */
+public class TokenValidationFeignConfig {
+
+    @Bean
+    public Request.Options tokenValidationOptions(@Value("${broadband.auth.connect-timeout-ms:500}") long connectTimeoutMs,
+                                                  @Value("${broadband.auth.read-timeout-ms:1000}") long readTimeoutMs) {
+        return new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS, readTimeoutMs, TimeUnit.MILLISECONDS, true);
+    }
+}
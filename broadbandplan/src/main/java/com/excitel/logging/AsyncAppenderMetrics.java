@@ -0,0 +1,60 @@
+package com.excitel.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes each {@link MeteredAsyncAppender} of the logging configuration as logback.async.queue.depth,
+ * logback.async.queue.capacity and logback.async.dropped, tagged with the appender name.
+ */
+@Component
+public class AsyncAppenderMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            bindTo(registry, context);
+        }
+    }
+
+    void bindTo(MeterRegistry registry, LoggerContext context) {
+        for (MeteredAsyncAppender appender : asyncAppenders(context).values()) {
+            Gauge.builder("logback.async.queue.depth", appender, MeteredAsyncAppender::getQueueDepth)
+                    .description("Log events waiting to be written")
+                    .tag("appender", appender.getName())
+                    .register(registry);
+            Gauge.builder("logback.async.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                    .tag("appender", appender.getName())
+                    .register(registry);
+            FunctionCounter.builder("logback.async.dropped", appender, MeteredAsyncAppender::getDroppedCount)
+                    .description("DEBUG and INFO events dropped because the queue was nearly full")
+                    .tag("appender", appender.getName())
+                    .register(registry);
+        }
+    }
+
+    private static Map<String, MeteredAsyncAppender> asyncAppenders(LoggerContext context) {
+        Map<String, MeteredAsyncAppender> appenders = new LinkedHashMap<>();
+        for (Logger logger : context.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> attached = logger.iteratorForAppenders();
+            while (attached.hasNext()) {
+                if (attached.next() instanceof MeteredAsyncAppender appender) {
+                    appenders.putIfAbsent(appender.getName(), appender);
+                }
+            }
+        }
+        return appenders;
+    }
+}
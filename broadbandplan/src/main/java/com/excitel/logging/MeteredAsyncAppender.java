@@ -0,0 +1,41 @@
+package com.excitel.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Async appender that counts the events it drops.
+ * Events wait in a bounded queue and are written by a single worker thread, off the request thread. Once the
+ * remaining capacity falls below the discarding threshold, DEBUG and INFO events are dropped, while WARN and
+ * ERROR events still wait for room, so they are never lost.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder dropped = new LongAdder();
+
+    // only asked for events arriving while the queue is above the discarding threshold
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            dropped.increment();
+        }
+        return discardable;
+    }
+
+    /**
+     * @return The number of events dropped since start
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The number of events waiting to be written
+     */
+    public int getQueueDepth() {
+        return getNumberOfElementsInQueue();
+    }
+}
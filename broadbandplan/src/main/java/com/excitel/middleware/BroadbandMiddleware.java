@@ -1,19 +1,16 @@
 package com.excitel.middleware;
 
 import com.excitel.dto.ResponseDTO;
-import com.excitel.external.TokenValidation;
+import com.excitel.exception.custom.AuthServiceUnavailableException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.Objects;
 
 import static com.excitel.constants.AppConstants.API_V1_PREFIX;
 
@@ -24,7 +21,10 @@ import static com.excitel.constants.AppConstants.API_V1_PREFIX;
 public class BroadbandMiddleware extends OncePerRequestFilter {
 
     @Autowired //NOSONAR
-    private TokenValidation tokenValidationService;
+    private TokenValidationCache tokenValidationCache;
+
+    @Autowired //NOSONAR
+    private JwtVerifier jwtVerifier;
 
     /**
      * Determines if the filter should be applied based on the request path and method.
@@ -61,17 +61,38 @@ public class BroadbandMiddleware extends OncePerRequestFilter {
             response.getWriter().write("Authorization header missing");
             return;
         }
-        //method called for validating token received
-        ResponseEntity<ResponseDTO> responseEntity = tokenValidationService.isValid(authToken);
-        // NULL pointer exception is handled in the if-else part thats why NOSONAR is used.
-        if (Objects.nonNull(responseEntity) && Objects.nonNull( responseEntity.getBody()) && responseEntity.getBody().getStatus() == HttpStatus.OK) {//NOSONAR
-            request.setAttribute("email", responseEntity.getBody().getEmail());//NOSONAR
-            request.setAttribute("mobileNumber", responseEntity.getBody().getMobileNumber());//NOSONAR
-            request.setAttribute("role", responseEntity.getBody().getRole());//NOSONAR
+        //method called for validating token received, answered locally for JWTs and recently seen tokens
+        ResponseDTO user;
+        try {
+            user = validate(authToken);
+        } catch (AuthServiceUnavailableException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.getWriter().write("Authorization service unavailable");
+            return;
+        }
+        if (user != null) {
+            request.setAttribute("email", user.getEmail());
+            request.setAttribute("mobileNumber", user.getMobileNumber());
+            request.setAttribute("role", user.getRole());
             filterChain.doFilter(request, response);
         } else {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.getWriter().write("Invalid authorization token");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies a JWT locally, and leaves opaque tokens to the auth service.
+     *
+     * @param authToken The Authorization header value
+     * @return The user details for a valid token, or null if it is invalid
+     */
+    private ResponseDTO validate(String authToken) {
+        JwtVerifier.Verification verification = jwtVerifier.verify(authToken);
+        return switch (verification.outcome()) {
+            case VERIFIED -> verification.user();
+            case REJECTED -> null;
+            case UNVERIFIABLE -> tokenValidationCache.validate(authToken);
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.excitel.middleware;
+
+import com.excitel.catalog.CatalogVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Answers conditional requests on the plan listing and subscription-plan-detail endpoints from the catalog
+ * version alone. A client whose copy is still current gets a 304 before any controller, cache or database runs.
+ * The listing is validated by ETag and Last-Modified. The POST body selects what subscription-plan-detail
+ * returns, so its ETag also covers a digest of the body and Last-Modified is not used to validate it.
+ * That body is buffered to be digested, so one larger than the configured maximum is answered with 413.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+public class ConditionalRequestFilter extends OncePerRequestFilter {
+
+    private static final String LISTING_PATH = "/api/v2/broadband";
+    private static final String SUBSCRIPTION_PLAN_DETAIL_PATH = "/api/v2/broadband/subscription-plan-detail";
+
+    @Autowired //NOSONAR
+    private CatalogVersion catalogVersion;
+    @Value("${broadband.http.conditional.enabled:true}")
+    private boolean enabled = true;
+    @Value("${broadband.http.conditional.max-body-bytes:65536}")
+    private int maxBodyBytes = 65536;
+
+    public void setEnabled(boolean enabled) { //NOSONAR
+        this.enabled = enabled; //NOSONAR
+    } //NOSONAR
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        String path = request.getServletPath();
+        return !enabled
+                || !((path.equals(LISTING_PATH) && request.getMethod().equals(HttpMethod.GET.name()))
+                || (path.equals(SUBSCRIPTION_PLAN_DETAIL_PATH) && request.getMethod().equals(HttpMethod.POST.name())));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+        if (stamp == null) { // this node is catching up with a write, serve without validators
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest target = request;
+        String etag;
+        boolean byDate;
+        if (request.getMethod().equals(HttpMethod.POST.name())) {
+            byte[] body = request.getContentLengthLong() > maxBodyBytes
+                    ? null : request.getInputStream().readNBytes(maxBodyBytes + 1);
+            if (body == null || body.length > maxBodyBytes) {
+                response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                return;
+            }
+            BufferedBodyRequest buffered = new BufferedBodyRequest(request, body);
+            etag = "W/\"" + stamp.version() + "-" + digest(buffered.body) + "\"";
+            byDate = false;
+            target = buffered;
+        } else {
+            etag = "W/\"" + stamp.version() + "\"";
+            byDate = true;
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, stamp.lastModified());
+        // clients may keep the body but have to revalidate it before each use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (notModified(request, etag, byDate ? stamp.lastModified() : -1)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        filterChain.doFilter(target, response);
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) { // If-Modified-Since is ignored when If-None-Match is present
+            String opaque = opaqueTag(etag);
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || opaqueTag(candidate).equals(opaque)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+        } catch (IllegalArgumentException e) { // unparseable date, answer in full
+            return false;
+        }
+    }
+
+    // If-None-Match uses the weak comparison, which ignores the W/ prefix
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) { // every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Holds the request body read once, so it can be digested and then still be read by the controller.
+     */
+    static class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // the whole body is already in memory, so it is available and read in one go
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.excitel.middleware;
+
+import com.excitel.dto.ResponseDTO;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies JWT bearer tokens locally against the auth service's public keys, so a request carrying a JWT does not
+ * wait on the auth service. The key set is loaded from a JWKS location (an https URL, or a local file standing in
+ * for it) and reloaded in the background, which picks up key rotation. A token signed with a key id that is not
+ * known yet triggers an early background reload, at most once per minimum refresh interval, so a request never
+ * waits on the JWKS endpoint.
+ * Tokens that are not JWTs, tokens signed with a key id not in the key set yet, and any token while no key set
+ * could be loaded, are left to the remote validation.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.RS384, JWSAlgorithm.RS512,
+            JWSAlgorithm.ES256, JWSAlgorithm.ES384, JWSAlgorithm.ES512);
+    private static final int JWKS_SIZE_LIMIT = 64 * 1024;
+
+    @Value("${broadband.auth.jwt.enabled:false}")
+    private boolean enabled;
+    @Value("${broadband.auth.jwt.jwks-location:}")
+    private String jwksLocation;
+    @Value("${broadband.auth.jwt.issuer:}")
+    private String issuer;
+    @Value("${broadband.auth.jwt.audience:}")
+    private String audience;
+    @Value("${broadband.auth.jwt.min-refresh-interval-ms:30000}")
+    private long minRefreshIntervalMs = 30000;
+    @Value("${broadband.auth.jwt.timeout-ms:2000}")
+    private int timeoutMs = 2000;
+
+    @Autowired //NOSONAR
+    @Qualifier("planRefreshExecutor")
+    private Executor planRefreshExecutor;
+
+    private final AtomicReference<JWKSet> keySet = new AtomicReference<>();
+    private final AtomicReference<DefaultJWTProcessor<SecurityContext>> processor = new AtomicReference<>();
+    private final AtomicLong lastRefresh = new AtomicLong();
+
+    public enum Outcome {
+        /** Signature and claims are valid */
+        VERIFIED,
+        /** A JWT with a bad signature or invalid claims */
+        REJECTED,
+        /** Not a JWT, or no key to verify it with yet, so the auth service has to decide */
+        UNVERIFIABLE
+    }
+
+    /**
+     * The result of verifying a token locally.
+     *
+     * @param outcome The outcome of the verification
+     * @param user    The user details taken from the claims, when the token was verified
+     */
+    public record Verification(Outcome outcome, ResponseDTO user) {
+        static final Verification REJECTED = new Verification(Outcome.REJECTED, null);
+        static final Verification UNVERIFIABLE = new Verification(Outcome.UNVERIFIABLE, null);
+    }
+
+    /**
+     * Verifies a token against the cached key set.
+     *
+     * @param token The Authorization header value, with or without the Bearer prefix
+     * @return The verification, with the user's email, mobileNumber and role claims if verified
+     */
+    public Verification verify(String token) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = processor.get();
+        if (!enabled || jwtProcessor == null) {
+            return Verification.UNVERIFIABLE;
+        }
+        SignedJWT jwt;
+        try {
+            jwt = SignedJWT.parse(token.regionMatches(true, 0, "Bearer ", 0, 7) ? token.substring(7).trim() : token);
+        } catch (ParseException e) { // an opaque token
+            return Verification.UNVERIFIABLE;
+        }
+        String keyId = jwt.getHeader().getKeyID();
+        if (keyId != null && keySet.get().getKeyByKeyId(keyId) == null) {
+            // possibly a rotated key, which the auth service can check until the reload has picked it up
+            if (!refreshEarly() || keySet.get().getKeyByKeyId(keyId) == null) {
+                return Verification.UNVERIFIABLE;
+            }
+            jwtProcessor = processor.get(); // the reload has already finished
+        }
+        try {
+            return verified(jwtProcessor.process(jwt, null));
+        } catch (BadJOSEException | JOSEException e) {
+            log.debug("Rejected JWT : {}", e.getMessage());
+            return Verification.REJECTED;
+        }
+    }
+
+    private static Verification verified(JWTClaimsSet claims) throws BadJOSEException {
+        try {
+            String email = claims.getStringClaim("email");
+            ResponseDTO user = new ResponseDTO(HttpStatus.OK, null, claims.getStringClaim("mobileNumber"),
+                    email != null ? email : claims.getSubject(), claims.getStringClaim("role"));
+            return new Verification(Outcome.VERIFIED, user);
+        } catch (ParseException e) { // a claim of the wrong type
+            throw new BadJOSEException("Invalid claims: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the key set once the application is ready to serve traffic.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Reloads the key set, keeping the previous one if the load fails.
+     */
+    @Scheduled(fixedDelayString = "${broadband.auth.jwt.jwks-refresh-ms:300000}",
+            initialDelayString = "${broadband.auth.jwt.jwks-refresh-ms:300000}")
+    public void refresh() {
+        if (!enabled || jwksLocation == null || jwksLocation.isBlank()) {
+            return;
+        }
+        lastRefresh.set(System.currentTimeMillis());
+        try {
+            JWKSet keys = loadKeys();
+            keySet.set(keys);
+            processor.set(processorFor(keys));
+            log.info("Loaded {} JWT verification keys", keys.getKeys().size());
+        } catch (IOException | ParseException e) {
+            log.error("Error loading JWKS from {} : {}", jwksLocation, e.getMessage());
+        }
+    }
+
+    private boolean refreshEarly() {
+        long last = lastRefresh.get();
+        long now = System.currentTimeMillis();
+        if (now - last < minRefreshIntervalMs || !lastRefresh.compareAndSet(last, now)) {
+            return false;
+        }
+        planRefreshExecutor.execute(this::refresh);
+        return true;
+    }
+
+    private JWKSet loadKeys() throws IOException, ParseException {
+        if (jwksLocation.startsWith("http://") || jwksLocation.startsWith("https://")) {
+            return JWKSet.load(new URL(jwksLocation), timeoutMs, timeoutMs, JWKS_SIZE_LIMIT);
+        }
+        Resource resource = new DefaultResourceLoader().getResource(jwksLocation);
+        try (InputStream in = resource.getInputStream()) {
+            return JWKSet.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private DefaultJWTProcessor<SecurityContext> processorFor(JWKSet keys) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(ALGORITHMS, new ImmutableJWKSet<>(keys)));
+        JWTClaimsSet exactMatch = isBlank(issuer) ? null : new JWTClaimsSet.Builder().issuer(issuer).build();
+        // exp is required, so a token without one is never accepted for good, and aud too once an audience is set
+        jwtProcessor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(isBlank(audience) ? null : audience,
+                exactMatch, Set.of("exp")));
+        return jwtProcessor;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public void setEnabled(boolean enabled) { //NOSONAR
+        this.enabled = enabled; //NOSONAR
+    } //NOSONAR
+
+    public void setJwksLocation(String jwksLocation) { //NOSONAR
+        this.jwksLocation = jwksLocation; //NOSONAR
+    } //NOSONAR
+}
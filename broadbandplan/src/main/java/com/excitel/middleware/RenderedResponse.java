@@ -0,0 +1,76 @@
+package com.excitel.middleware;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A fully rendered response body, kept together with its gzipped form and strong ETags so a cache hit
+ * can be written without rendering again.
+ */
+@Getter
+public class RenderedResponse {
+
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    private RenderedResponse(String contentType, byte[] body, byte[] gzipBody, String etag) {
+        this.contentType = contentType;
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = etag;
+        // a strong ETag identifies the exact bytes, so the gzip representation needs its own
+        this.gzipEtag = gzipBody != null ? etag.substring(0, etag.length() - 1) + "-gzip\"" : null;
+    }
+
+    /**
+     * Captures a rendered body.
+     *
+     * @param contentType  The content type the body was rendered with
+     * @param body         The rendered body
+     * @param gzipMinBytes The body size from which a gzipped copy is kept, or a negative value to never gzip
+     * @return The rendered response
+     */
+    public static RenderedResponse of(String contentType, byte[] body, int gzipMinBytes) {
+        byte[] copy = Arrays.copyOf(body, body.length);
+        byte[] gzipped = gzipMinBytes >= 0 && copy.length >= gzipMinBytes ? gzip(copy) : null;
+        return new RenderedResponse(contentType, copy, gzipped, strongEtag(copy));
+    }
+
+    /**
+     * @param etag An entity tag sent by the client
+     * @return true if the tag names either representation of this body
+     */
+    public boolean matches(String etag) {
+        return this.etag.equals(etag) || etag.equals(gzipEtag);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) { // every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
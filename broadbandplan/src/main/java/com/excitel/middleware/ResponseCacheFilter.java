@@ -0,0 +1,151 @@
+package com.excitel.middleware;
+
+import com.excitel.redishelper.BroadbandRedis;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Response-level cache for the plan listing endpoint.
+ * The rendered JSON body, a gzipped copy and a strong ETag are kept per query, so a hit is written straight
+ * to the output stream without loading, mapping or serializing any plan. Keys carry the plan cache generation,
+ * so an admin write moves every listing to new keys, while the periodic catalog reload leaves them in place.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String LISTING_PATH = "/api/v2/broadband";
+
+    @Autowired //NOSONAR
+    private BroadbandRedis broadbandRedis;
+    @Value("${broadband.cache.response.enabled:false}")
+    private boolean enabled;
+    @Value("${broadband.cache.response.gzip-min-bytes:1024}")
+    private int gzipMinBytes = 1024;
+
+    private Cache<String, RenderedResponse> responses = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    @Autowired
+    public void configureCache(@Value("${broadband.cache.response.max-size:1000}") long maxSize,
+                               @Value("${broadband.cache.response.ttl-seconds:30}") long ttlSeconds) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public void setEnabled(boolean enabled) { //NOSONAR
+        this.enabled = enabled; //NOSONAR
+    } //NOSONAR
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !enabled
+                || !request.getMethod().equals(HttpMethod.GET.name())
+                || !request.getServletPath().equals(LISTING_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // the key is taken before rendering, so a concurrent write can only leave the entry under an outdated key
+        String key = cacheKey(request);
+        RenderedResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || !isJson(wrapper.getContentType())) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        RenderedResponse rendered = RenderedResponse.of(wrapper.getContentType(), wrapper.getContentAsByteArray(), gzipMinBytes);
+        responses.put(key, rendered);
+        wrapper.resetBuffer();
+        write(rendered, request, response);
+    }
+
+    String cacheKey(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder("g").append(broadbandRedis.currentGeneration()).append('?');
+        // parameter order does not change the result, so equal queries share one entry
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(parameter.getKey()).append('=').append(value).append('&');
+            }
+        }
+        return key.toString();
+    }
+
+    private void write(RenderedResponse rendered, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = rendered.getGzipBody() != null && acceptsGzip(request);
+        if (rendered.getGzipBody() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        // a catalog version ETag set by the ConditionalRequestFilter takes precedence over the content hash
+        if (!response.containsHeader(HttpHeaders.ETAG)) {
+            response.setHeader(HttpHeaders.ETAG, gzip ? rendered.getGzipEtag() : rendered.getEtag());
+        }
+        if (notModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), rendered)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = gzip ? rendered.getGzipBody() : rendered.getBody();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(rendered.getContentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean notModified(String ifNoneMatch, RenderedResponse rendered) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            // If-None-Match uses the weak comparison, so a weak form of our tag matches as well
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || rendered.matches(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+}
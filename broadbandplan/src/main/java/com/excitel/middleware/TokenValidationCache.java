@@ -0,0 +1,139 @@
+package com.excitel.middleware;
+
+import com.excitel.dto.ResponseDTO;
+import com.excitel.external.GuardedTokenValidation;
+import com.excitel.optimize.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Local cache of token validation results, so repeat requests with the same token skip the AUTH-SERVICE call.
+ * Tokens are kept by their SHA-256 hash, never in clear. Valid tokens map to the user details the auth service
+ * returned; tokens it rejected are remembered for a shorter time, so a client retrying a bad token does not
+ * reach the auth service on every request either. A failure to reach the auth service is not cached, and an
+ * AuthServiceUnavailableException from an open circuit or a full bulkhead is passed on to the caller.
+ * Concurrent validations of the same token, such as the burst of calls a client makes right after login, share
+ * one auth service call.
+ */
+@Component
+public class TokenValidationCache {
+
+    @Autowired //NOSONAR
+    private GuardedTokenValidation tokenValidationService;
+    @Value("${broadband.auth.cache.enabled:true}")
+    private boolean enabled = true;
+
+    private Cache<String, ResponseDTO> validTokens = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(60))
+            .build();
+    private Cache<String, Boolean> invalidTokens = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(10))
+            .build();
+    private final SingleFlight<String, ResponseDTO> validations = new SingleFlight<>();
+
+    @Autowired
+    public void configureCache(@Value("${broadband.auth.cache.max-size:10000}") long maxSize,
+                               @Value("${broadband.auth.cache.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${broadband.auth.cache.negative-ttl-seconds:10}") long negativeTtlSeconds) {
+        this.validTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.invalidTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Validates a token, from the cache if it was validated recently.
+     *
+     * @param token The authorization token
+     * @return The user details for a valid token, or null if the auth service rejected it
+     */
+    public ResponseDTO validate(String token) {
+        String key = hash(token);
+        if (!enabled) {
+            return validations.execute(key, () -> validateRemotely(token));
+        }
+        ResponseDTO cached = validTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (invalidTokens.getIfPresent(key) != null) {
+            return null;
+        }
+        // the result is cached before the flight ends, so later callers find it in the cache
+        return validations.execute(key, () -> {
+            ResponseDTO validated = validateRemotely(token);
+            if (validated != null) {
+                validTokens.put(key, validated);
+            } else {
+                invalidTokens.put(key, Boolean.TRUE);
+            }
+            return validated;
+        });
+    }
+
+    private ResponseDTO validateRemotely(String token) {
+        ResponseEntity<ResponseDTO> responseEntity;
+        try {
+            responseEntity = tokenValidationService.isValid(token);
+        } catch (FeignException e) {
+            if (e.status() == HttpStatus.UNAUTHORIZED.value() || e.status() == HttpStatus.FORBIDDEN.value()) {
+                return null;
+            }
+            throw e;
+        }
+        if (Objects.nonNull(responseEntity) && Objects.nonNull(responseEntity.getBody()) && responseEntity.getBody().getStatus() == HttpStatus.OK) {//NOSONAR
+            return responseEntity.getBody();
+        }
+        return null;
+    }
+
+    /**
+     * Forgets a token, e.g. on logout or when its user's role changes, so its next use is validated remotely.
+     *
+     * @param token The authorization token
+     */
+    public void invalidate(String token) {
+        String key = hash(token);
+        validTokens.invalidate(key);
+        invalidTokens.invalidate(key);
+    }
+
+    /**
+     * Forgets every token, e.g. after the auth service rotated its keys.
+     */
+    public void invalidateAll() {
+        validTokens.invalidateAll();
+        invalidTokens.invalidateAll();
+    }
+
+    public void setEnabled(boolean enabled) { //NOSONAR
+        this.enabled = enabled; //NOSONAR
+    } //NOSONAR
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) { // every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,56 +1,241 @@
 package com.excitel.optimize;
 
 import com.excitel.dto.ErrorResponseDTO;
+import com.excitel.exception.custom.DatabaseConnectionException;
 import com.excitel.model.BroadbandPlan;
+import com.excitel.redishelper.BroadbandRedis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Looks up plans by ID for the subscription service.
+ * Plans are read through a per-plan cache first, only the IDs missing from it are read from DynamoDB.
+ * The IDs are read in BatchGetItem chunks of at most 100 keys, a bounded number of them in flight at once, through
+ * the non-blocking DynamoDB client. Keys DynamoDB leaves unprocessed, e.g. under throttling, are retried with jittered
+ * exponential backoff scheduled on a timer, so no thread waits on DynamoDB or on a backoff. The plans read are written
+ * to the cache on the refresh executor, so neither the lookup nor the SDK thread completing it waits on Redis.
+ */
 @Service
 public class SubscriptionFeignPlanService {
 
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionFeignPlanService.class);
+    static final int MAX_BATCH_KEYS = 100;
+    private static final String PLAN_TABLE = "plan-table";
+
     @Autowired //NOSONAR
     private DynamoDbClient dynamoDbClient;
 
+    @Autowired(required = false) //NOSONAR
+    private DynamoDbAsyncClient dynamoDbAsyncClient;
+
+    @Autowired //NOSONAR
+    private BroadbandRedis broadbandRedis;
+
+    @Autowired //NOSONAR
+    @Qualifier("planBatchExecutor")
+    private Executor planBatchExecutor = Runnable::run;
+
+    @Autowired //NOSONAR
+    @Qualifier("planRefreshExecutor")
+    private Executor planRefreshExecutor = Runnable::run;
+
+    @Value("${broadband.dynamodb.async.enabled:true}")
+    private boolean asyncEnabled = true;
+
+    @Value("${broadband.batch.max-chunks-in-flight:4}")
+    private int maxChunksInFlight = 4;
+
+    @Value("${broadband.batch.max-retries:8}")
+    private int maxRetries = 8;
+
+    @Value("${broadband.batch.base-backoff-ms:25}")
+    private long baseBackoffMs = 25;
+
+    @Value("${broadband.batch.max-backoff-ms:1000}")
+    private long maxBackoffMs = 1000;
+
     /**
-     * Retrieves details of plans by their IDs.
+     * Retrieves details of plans by their IDs, waiting for the lookup to complete.
      *
      * @param planIds  List of plan IDs
      * @param planType Plan type
      * @return SubscriptionResponseDTO containing mobile plans
+     * @throws DatabaseConnectionException if some keys are still unprocessed once the retries are used up
      */
     public ErrorResponseDTO.SubscriptionResponseDTO getAllPlanByPlanIdList(List<String> planIds, String planType) {
-        // Construct keys to get from DynamoDB
+        return join(getAllPlanByPlanIdListAsync(planIds, planType));
+    }
+
+    /**
+     * Retrieves details of plans by their IDs without blocking the calling thread.
+     *
+     * @param planIds  List of plan IDs
+     * @param planType Plan type
+     * @return Future of the SubscriptionResponseDTO containing mobile plans, failed with a
+     * DatabaseConnectionException if some keys are still unprocessed once the retries are used up
+     */
+    public CompletableFuture<ErrorResponseDTO.SubscriptionResponseDTO> getAllPlanByPlanIdListAsync(List<String> planIds, String planType) {
+        // a batch must not contain the same key twice
+        Set<String> uniqueIds = new LinkedHashSet<>(planIds);
+        Map<String, BroadbandPlan> plansMap = new HashMap<>(cachedPlanDetails(planType, uniqueIds));
+        // Construct keys to get from DynamoDB for the plans that are not cached
         List<Map<String, AttributeValue>> keysToGet = new ArrayList<>();
-        for (String planId : planIds) {
+        for (String planId : uniqueIds) {
+            if (plansMap.containsKey(planId)) {
+                continue;
+            }
             Map<String, AttributeValue> key = new HashMap<>();
             key.put("PlanType", AttributeValue.builder().s(planType).build());
             key.put("PlanID", AttributeValue.builder().s(planId).build());
             keysToGet.add(key);
         }
-        // Create a batch request to fetch items
-        KeysAndAttributes keysAndAttributes = KeysAndAttributes.builder()
+        // Fetch the chunks over a few concurrent lanes, each lane starting its next chunk once the previous one is in,
+        // so one large lookup cannot occupy the whole batch executor, and merge the results once all of them are in
+        int chunkCount = (keysToGet.size() + MAX_BATCH_KEYS - 1) / MAX_BATCH_KEYS;
+        int lanes = Math.max(1, Math.min(maxChunksInFlight, chunkCount));
+        List<CompletableFuture<List<Map<String, AttributeValue>>>> chunks = new ArrayList<>(Collections.nCopies(chunkCount, null));
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<?> previous = CompletableFuture.completedFuture(null);
+            for (int chunk = lane; chunk < chunkCount; chunk += lanes) {
+                List<Map<String, AttributeValue>> keys = keysToGet.subList(chunk * MAX_BATCH_KEYS,
+                        Math.min((chunk + 1) * MAX_BATCH_KEYS, keysToGet.size()));
+                CompletableFuture<List<Map<String, AttributeValue>>> fetched = previous.thenCompose(ignored -> fetchChunk(keys));
+                chunks.set(chunk, fetched);
+                previous = fetched;
+            }
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<BroadbandPlan> fetched = new ArrayList<>();
+            for (CompletableFuture<List<Map<String, AttributeValue>>> chunk : chunks) {
+                for (Map<String, AttributeValue> item : chunk.join()) {
+                    BroadbandPlan plan = mapToPlanDetail(item);
+                    plansMap.put(plan.getPlanId(), plan);
+                    fetched.add(plan);
+                }
+            }
+            cachePlanDetails(planType, fetched);
+            return ErrorResponseDTO.SubscriptionResponseDTO.builder().status(HttpStatus.OK).mobilePlans(plansMap).build();
+        });
+    }
+
+    // the cache only saves reads, so a Redis failure falls back to DynamoDB
+    private Map<String, BroadbandPlan> cachedPlanDetails(String planType, Set<String> planIds) {
+        try {
+            return broadbandRedis.getPlanDetails(planType, planIds);
+        } catch (DataAccessException e) {
+            log.error("Error reading plan detail cache : {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    // the write is handed off rather than awaited, a write dropped by a full refresh queue only costs a later read
+    private void cachePlanDetails(String planType, List<BroadbandPlan> plans) {
+        planRefreshExecutor.execute(() -> {
+            try {
+                broadbandRedis.addPlanDetails(planType, plans);
+            } catch (DataAccessException e) {
+                log.error("Error writing plan detail cache : {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reads one chunk of keys, retrying whatever DynamoDB returns as unprocessed.
+     */
+    private CompletableFuture<List<Map<String, AttributeValue>>> fetchChunk(List<Map<String, AttributeValue>> keys) {
+        KeysAndAttributes pending = KeysAndAttributes.builder()
                 .projectionExpression("PlanID, Validity, Price, OTT, VoiceLimit, SMS, Speed,TotalData")
-                .keys(keysToGet)
+                .keys(keys)
                 .build();
+        return fetchChunk(pending, new ArrayList<>(keys.size()), 0);
+    }
 
-        BatchGetItemRequest batchGetItemRequest = BatchGetItemRequest.builder()
-                .requestItems(Map.of("plan-table", keysAndAttributes))
+    // each attempt is chained after the previous one, so the items list is never written concurrently
+    private CompletableFuture<List<Map<String, AttributeValue>>> fetchChunk(KeysAndAttributes pending,
+                                                                          List<Map<String, AttributeValue>> items,
+                                                                          int attempt) {
+        BatchGetItemRequest request = BatchGetItemRequest.builder()
+                .requestItems(Map.of(PLAN_TABLE, pending))
                 .build();
-        // Execute the batch request and map the response to BroadbandPlan objects
-        BatchGetItemResponse batchGetItemResponse = dynamoDbClient.batchGetItem(batchGetItemRequest);
-        Map<String, BroadbandPlan> plansMap = batchGetItemResponse.responses().get("plan-table").stream()
-                .map(this::mapToPlanDetail)
-                .collect(Collectors.toMap(BroadbandPlan::getPlanId, Function.identity()));
+        return batchGetItem(request).thenCompose(response -> {
+            List<Map<String, AttributeValue>> read = response.responses().get(PLAN_TABLE);
+            if (read != null) {
+                items.addAll(read);
+            }
+            KeysAndAttributes unprocessed = response.hasUnprocessedKeys() ? response.unprocessedKeys().get(PLAN_TABLE) : null;
+            if (unprocessed == null || !unprocessed.hasKeys() || unprocessed.keys().isEmpty()) {
+                return CompletableFuture.completedFuture(items);
+            }
+            if (attempt >= maxRetries) {
+                return CompletableFuture.failedFuture(new DatabaseConnectionException(unprocessed.keys().size()
+                        + " plans still unprocessed after " + maxRetries + " retries"));
+            }
+            // the retry is scheduled rather than slept for, so no thread is held during the backoff. The timer only
+            // hands the retry on, the DynamoDB call itself is sent through the async client or the batch executor
+            Executor delayed = CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> unprocessed, delayed)
+                    .thenCompose(keys -> fetchChunk(keys, items, attempt + 1));
+        });
+    }
 
-        return ErrorResponseDTO.SubscriptionResponseDTO.builder().status(HttpStatus.OK).mobilePlans(plansMap).build();
+    /**
+     * Sends one BatchGetItem request, through the non-blocking client when it is available and enabled.
+     * Otherwise the blocking client is called on the batch executor, so the caller is still not held.
+     */
+    private CompletableFuture<BatchGetItemResponse> batchGetItem(BatchGetItemRequest request) {
+        if (asyncEnabled && dynamoDbAsyncClient != null) {
+            return dynamoDbAsyncClient.batchGetItem(request);
+        }
+        return supplyOnBatchExecutor(() -> dynamoDbClient.batchGetItem(request));
+    }
+
+    // a saturated executor fails the lookup, rather than running the blocking call on whichever thread submitted it
+    private <T> CompletableFuture<T> supplyOnBatchExecutor(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, planBatchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new DatabaseConnectionException("Plan lookup rejected, the batch executor is saturated"));
+        }
     }
+
+    /**
+     * Returns a random delay up to an exponentially growing cap ("full jitter"), so throttled chunks
+     * spread their retries instead of hitting the table again in lockstep.
+     */
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) { // surface the chunk's own failure, as a direct call would
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Maps a DynamoDB item to a BroadbandPlan object.
      *
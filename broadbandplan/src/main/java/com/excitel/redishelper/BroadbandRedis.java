@@ -3,25 +3,93 @@ package com.excitel.redishelper;
 import com.excitel.dto.RequestDTO;
 import com.excitel.model.BroadbandConnection;
 import com.excitel.model.BroadbandPlan;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.Cache;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
+/**
+ * Two-tier cache for plan listings, single plan details and connection details.
+ * A bounded in-process near cache (L1) holds deserialized objects in front of Redis (L2), which is shared by all nodes.
+ * Plan listing keys are stamped with a generation counter held in Redis. Clearing the plan cache is a single INCR,
+ * after which old entries are never read again and expire through the cache TTL. The new generation is broadcast
+ * over Redis pub/sub so every node switches to it and drops its L1 entries.
+ * Listings carry their store time: past the soft TTL they are still served but flagged for a background refresh,
+ * the Redis entry TTL acts as the hard TTL.
+ * Values are stored in Redis as raw bytes produced by the configured {@link CacheCodec}.
+ * Single plan details are kept per (PlanType, PlanID) outside the cache manager, so they can be read with MGET,
+ * and are evicted one by one when an admin changes the plan.
+ */
 @Component
-public class BroadbandRedis {
+public class BroadbandRedis implements MessageListener {
+    public static final String INVALIDATION_CHANNEL = "broadband-cache-invalidation";
+    private static final Logger log = LoggerFactory.getLogger(BroadbandRedis.class);
+    private static final String INVALIDATE_PLANS = "plans";
+    static final String GENERATION_KEY = "BroadbandPlans:generation";
+    private static final int UNLINK_BATCH_SIZE = 500;
+    private static final String LEASE_PREFIX = "BroadbandPlans:lease:";
+    private static final long LEASE_POLL_INTERVAL_MS = 25;
+    // deletes the lease only while it still holds this node's token, so an expired lease taken over by another node is kept
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+    private static final long DEFAULT_NEAR_CACHE_SIZE = 1000;
+    private static final long DEFAULT_NEAR_CACHE_TTL_SECONDS = 30;
+    private static final String PLAN_DETAIL_PREFIX = "PlanDetail:";
+    private static final String INVALIDATE_PLAN = "plan:";
+
     @Autowired //NOSONAR
     private RedisCacheManager redisCacheManager;
     @Autowired //NOSONAR
     private RedisTemplate<String, String> redisTemplate;
     private ObjectMapper objectMapper; //NOSONAR
+    @Autowired //NOSONAR
+    private CacheCodec cacheCodec = JacksonCacheCodec.smile();
+    @Value("${broadband.cache.plans.soft-ttl-seconds:60}")
+    private long softTtlSeconds = 60;
+    @Value("${broadband.cache.plan-detail.ttl-seconds:300}")
+    private long planDetailTtlSeconds = 300;
+    private com.github.benmanes.caffeine.cache.Cache<String, CachedPlans> planNearCache =
+            nearCache(DEFAULT_NEAR_CACHE_SIZE, DEFAULT_NEAR_CACHE_TTL_SECONDS);
+    private com.github.benmanes.caffeine.cache.Cache<String, BroadbandConnection> connectionNearCache =
+            nearCache(DEFAULT_NEAR_CACHE_SIZE, DEFAULT_NEAR_CACHE_TTL_SECONDS);
+    private com.github.benmanes.caffeine.cache.Cache<String, BroadbandPlan> planDetailNearCache =
+            nearCache(DEFAULT_NEAR_CACHE_SIZE, DEFAULT_NEAR_CACHE_TTL_SECONDS);
+    private final AtomicLong generation = new AtomicLong();
+    private final List<LongConsumer> generationListeners = new CopyOnWriteArrayList<>();
 
     private static final String BROADBANDPLANS = "BroadbandPlans";
     public void setRedisCacheManager(RedisCacheManager redisCacheManager) { //NOSONAR
@@ -32,8 +100,45 @@ public class BroadbandRedis {
         this.objectMapper = objectMapper; //NOSONAR
     } //NOSONAR
 
+    public void setCacheCodec(CacheCodec cacheCodec) { //NOSONAR
+        this.cacheCodec = cacheCodec; //NOSONAR
+    } //NOSONAR
+
+    @Autowired
+    public void configureNearCache(@Value("${broadband.cache.near.max-size:1000}") long maxSize,
+                                   @Value("${broadband.cache.near.ttl-seconds:30}") long ttlSeconds) {
+        this.planNearCache = nearCache(maxSize, ttlSeconds);
+        this.connectionNearCache = nearCache(maxSize, ttlSeconds);
+        this.planDetailNearCache = nearCache(maxSize, ttlSeconds);
+    }
+
+    private static <V> com.github.benmanes.caffeine.cache.Cache<String, V> nearCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * @return The plan listing key generation this node currently reads and writes
+     */
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Registers a callback run with the new generation each time this node moves to one, whether through its own
+     * write, an invalidation message or a generation sync. It runs on the thread that saw the change, which may be
+     * the Redis listener thread, so it must not block.
+     *
+     * @param listener The callback taking the new generation
+     */
+    public void addGenerationListener(LongConsumer listener) {
+        generationListeners.add(listener);
+    }
+
     public String createRedisKey(RequestDTO params) {
-        StringBuilder keyBuilder = new StringBuilder("BroadbandPlans_");
+        StringBuilder keyBuilder = new StringBuilder(generationPrefix(generation.get()));
         keyBuilder.append(params.getActive())
                 .append("_")
                 .append(params.getPlanId())
@@ -49,35 +154,63 @@ public class BroadbandRedis {
                 .append(params.getOffset())
                 .append("_")
                 .append(params.getLimit());
+        // range filters are optional, so they only extend the key when present
+        if (params.getMinSpeed() != null || params.getMaxSpeed() != null) {
+            keyBuilder.append("_speed:").append(params.getMinSpeed()).append("-").append(params.getMaxSpeed());
+        }
+        if (params.getMinPrice() != null || params.getMaxPrice() != null) {
+            keyBuilder.append("_price:").append(params.getMinPrice()).append("-").append(params.getMaxPrice());
+        }
+        if (params.getNextToken() != null) {
+            keyBuilder.append("_after:").append(params.getNextToken());
+        }
         return keyBuilder.toString();
     }
 
     public void addBroadbandPlansCache(String key, List<BroadbandPlan> broadbandPlans) {
         Cache broadbandPlansCache = redisCacheManager.getCache(BROADBANDPLANS);
         assert broadbandPlansCache != null;
-        ObjectMapper objectMapper1 = new ObjectMapper();
-        try {
-            String serializedBroadbandPlans = objectMapper1.writeValueAsString(broadbandPlans);
-            broadbandPlansCache.put(key, serializedBroadbandPlans);
-        } catch (JsonProcessingException e) {
-            // Handle serialization error
-            throw new SerializationException("Error occurred while serializing BroadbandPlans", e);
-        }
+        CachedPlans entry = new CachedPlans(System.currentTimeMillis(), Collections.unmodifiableList(new ArrayList<>(broadbandPlans)));
+        broadbandPlansCache.put(key, cacheCodec.encodePlans(entry));
+        planNearCache.put(key, entry);
     }
 
     public List<BroadbandPlan> getBroadbandPlansCache(String key) {
+        CachedPlans entry = getBroadbandPlansEntry(key);
+        return entry != null ? entry.getPlans() : null;
+    }
+
+    /**
+     * Tells whether a cached listing is past its soft TTL and should be refreshed in the background.
+     * Every read goes through the near cache, so the entry just returned by {@link #getBroadbandPlansCache(String)}
+     * is looked up there without another round trip to Redis.
+     *
+     * @param key The cache key
+     * @return true if the entry is older than the soft TTL
+     */
+    public boolean isBroadbandPlansStale(String key) {
+        CachedPlans entry = planNearCache.getIfPresent(key);
+        return entry != null && System.currentTimeMillis() - entry.getStoredAt() > softTtlSeconds * 1000;
+    }
+
+    private CachedPlans getBroadbandPlansEntry(String key) {
+        CachedPlans nearCached = planNearCache.getIfPresent(key);
+        if (nearCached != null) {
+            return nearCached;
+        }
         Cache broadbandPlansCache = redisCacheManager.getCache(BROADBANDPLANS);
         if (broadbandPlansCache != null) {
             Cache.ValueWrapper cachedBroadbandPlansWrapper = broadbandPlansCache.get(key);
             if (cachedBroadbandPlansWrapper != null) {
                 Object cachedObject = cachedBroadbandPlansWrapper.get();
-                if (cachedObject instanceof String string) {
-                    ObjectMapper objectMapper1 = new ObjectMapper();
+                if (cachedObject instanceof byte[] payload) {
                     try {
-                        return objectMapper1.readValue(string, new TypeReference<List<BroadbandPlan>>() {});
-                    } catch (JsonProcessingException e) {
-                        // Handle deserialization error
-                        throw new SerializationException("Error occurred while deserializing BroadbandPlans", e);
+                        CachedPlans entry = cacheCodec.decodePlans(payload);
+                        entry.setPlans(Collections.unmodifiableList(entry.getPlans()));
+                        planNearCache.put(key, entry);
+                        return entry;
+                    } catch (SerializationException e) { // e.g. written in an older format, reload it
+                        log.warn("Ignoring undecodable plan cache entry {} : {}", key, e.getMessage());
                     }
                 }
             }
@@ -90,27 +223,286 @@ public class BroadbandRedis {
         String key = mobileNumber + status + "_connection_details";
         Cache connectionDetailCache = redisCacheManager.getCache("ConnectionDetail");
         assert connectionDetailCache != null;
-        connectionDetailCache.put(key, connectionDetail);
+        connectionDetailCache.put(key, cacheCodec.encodeConnection(connectionDetail));
+        if (connectionDetail != null) {
+            connectionNearCache.put(key, connectionDetail);
+        }
     }
 
     public BroadbandConnection getConnectionDetailsCache(String mobileNumber, String status){
         String key = mobileNumber + status + "_connection_details";
+        BroadbandConnection nearCached = connectionNearCache.getIfPresent(key);
+        if (nearCached != null) {
+            return nearCached;
+        }
         Cache connectionDetailCache = redisCacheManager.getCache("ConnectionDetail");
         if (connectionDetailCache != null) {
             Cache.ValueWrapper cachedConnectionDetailWrapper = connectionDetailCache.get(key);
-            if (cachedConnectionDetailWrapper != null) {
-                return (BroadbandConnection) cachedConnectionDetailWrapper.get();
+            if (cachedConnectionDetailWrapper != null && cachedConnectionDetailWrapper.get() instanceof byte[] payload) {
+                try {
+                    BroadbandConnection connectionDetail = cacheCodec.decodeConnection(payload);
+                    if (connectionDetail != null) {
+                        connectionNearCache.put(key, connectionDetail);
+                    }
+                    return connectionDetail;
+                } catch (SerializationException e) { // e.g. written in an older format, reload it
+                    log.warn("Ignoring undecodable connection cache entry {} : {}", key, e.getMessage());
+                }
             }
         }
         return null;
     }
 
+    /**
+     * Looks up single plans by ID, from the near cache first and then with one MGET for the rest.
+     *
+     * @param planType The plan type the IDs belong to
+     * @param planIds  The plan IDs to look up
+     * @return The cached plans by plan ID, IDs that are not cached are absent
+     */
+    public Map<String, BroadbandPlan> getPlanDetails(String planType, Collection<String> planIds) {
+        Map<String, BroadbandPlan> found = new HashMap<>();
+        List<String> remote = new ArrayList<>();
+        for (String planId : planIds) {
+            BroadbandPlan plan = planDetailNearCache.getIfPresent(planDetailKey(planType, planId));
+            if (plan != null) {
+                found.put(planId, plan);
+            } else {
+                remote.add(planId);
+            }
+        }
+        if (remote.isEmpty()) {
+            return found;
+        }
+        byte[][] keys = remote.stream()
+                .map(planId -> planDetailKey(planType, planId).getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < remote.size() && i < values.size(); i++) {
+            if (values.get(i) == null) {
+                continue;
+            }
+            try {
+                BroadbandPlan plan = cacheCodec.decodePlan(values.get(i));
+                planDetailNearCache.put(planDetailKey(planType, remote.get(i)), plan);
+                found.put(remote.get(i), plan);
+            } catch (SerializationException e) { // e.g. written in an older format, reload it
+                log.warn("Ignoring undecodable plan detail entry {} : {}", remote.get(i), e.getMessage());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores single plans by ID in one pipelined round trip.
+     *
+     * @param planType The plan type the plans belong to
+     * @param plans    The plans read from the database
+     */
+    public void addPlanDetails(String planType, Collection<BroadbandPlan> plans) {
+        if (plans.isEmpty()) {
+            return;
+        }
+        Expiration ttl = Expiration.seconds(planDetailTtlSeconds);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (BroadbandPlan plan : plans) {
+                byte[] key = planDetailKey(planType, plan.getPlanId()).getBytes(StandardCharsets.UTF_8);
+                connection.stringCommands().set(key, cacheCodec.encodePlan(plan), ttl, RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+        for (BroadbandPlan plan : plans) {
+            planDetailNearCache.put(planDetailKey(planType, plan.getPlanId()), plan);
+        }
+    }
+
+    /**
+     * Removes a single plan from the plan detail cache of every node, after an admin update or delete.
+     *
+     * @param planType The plan type of the changed plan
+     * @param planId   The ID of the changed plan
+     */
+    public void evictPlanDetail(String planType, String planId) {
+        String key = planDetailKey(planType, planId);
+        planDetailNearCache.invalidate(key);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.keyCommands().del(key.getBytes(StandardCharsets.UTF_8)));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, INVALIDATE_PLAN + planType + ":" + planId);
+        } catch (DataAccessException e) { // the entry still expires through its TTL
+            log.error("Error evicting plan detail {} : {}", key, e.getMessage());
+        }
+    }
+
+    private static String planDetailKey(String planType, String planId) {
+        return PLAN_DETAIL_PREFIX + planType + ":" + planId;
+    }
+
+    /**
+     * Tries to take the cross-node lease for loading a plan listing.
+     *
+     * @param key The cache key being loaded
+     * @param ttl How long the lease is held at most if it is never released
+     * @return The lease token, or null if another node holds the lease
+     */
+    public String acquireLoadLease(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + key, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * Releases a lease taken with {@link #acquireLoadLease(String, Duration)}.
+     *
+     * @param key   The cache key that was loaded
+     * @param token The token returned when the lease was taken
+     */
+    public void releaseLoadLease(String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_PREFIX + key), token);
+        } catch (DataAccessException e) {
+            log.error("Error releasing plan load lease : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Polls the cache until another node has stored the listing, or the wait time runs out.
+     *
+     * @param key  The cache key being loaded elsewhere
+     * @param wait The maximum time to wait
+     * @return The cached plans, or null if they did not appear in time
+     */
+    public List<BroadbandPlan> awaitBroadbandPlansCache(String key, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            List<BroadbandPlan> cached = getBroadbandPlansCache(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Invalidates every cached plan listing by moving to the next key generation.
+     * Falls back to unlinking the stored entries if the counter cannot be incremented.
+     */
     public void clearBroadbandCache() {
-        Set<String> keys = redisTemplate.keys(BROADBANDPLANS + ":*");
-        if (keys != null) {
-            for (String key : keys) {
-                redisTemplate.delete(key);
+        planNearCache.invalidateAll();
+        Long next;
+        try {
+            next = redisTemplate.opsForValue().increment(GENERATION_KEY);
+        } catch (DataAccessException e) {
+            log.error("Error incrementing plan cache generation : {}", e.getMessage());
+            purgeStalePlanEntries(true);
+            return;
+        }
+        if (next != null) {
+            advanceGeneration(next);
+            // other nodes switch generation and drop their near cache when the message arrives
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, INVALIDATE_PLANS + ":" + next);
+        }
+    }
+
+    /**
+     * Reads the current key generation from Redis, so a node that missed an invalidation message catches up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${broadband.cache.generation-sync-ms:30000}",
+            initialDelayString = "${broadband.cache.generation-sync-ms:30000}")
+    public void syncGeneration() {
+        try {
+            String stored = redisTemplate.opsForValue().get(GENERATION_KEY);
+            if (stored != null) {
+                advanceGeneration(Long.parseLong(stored));
             }
+        } catch (DataAccessException | NumberFormatException e) {
+            log.error("Error reading plan cache generation : {}", e.getMessage());
         }
     }
+
+    /**
+     * Removes plan listing entries of older generations with SCAN and batched UNLINK, without blocking Redis the way
+     * KEYS does. Entries also expire on their own, this only reclaims memory sooner.
+     */
+    @Scheduled(fixedDelayString = "${broadband.cache.purge-interval-ms:3600000}",
+            initialDelayString = "${broadband.cache.purge-interval-ms:3600000}")
+    public void purgeStalePlans() {
+        purgeStalePlanEntries(false);
+    }
+
+    Long purgeStalePlanEntries(boolean includeCurrent) {
+        String currentPrefix = BROADBANDPLANS + "::" + generationPrefix(generation.get());
+        ScanOptions options = ScanOptions.scanOptions().match(BROADBANDPLANS + "::*").count(UNLINK_BATCH_SIZE).build();
+        try {
+            return redisTemplate.execute((RedisCallback<Long>) connection -> {
+                long removed = 0;
+                List<byte[]> batch = new ArrayList<>(UNLINK_BATCH_SIZE);
+                try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                    while (cursor.hasNext()) {
+                        byte[] key = cursor.next();
+                        if (includeCurrent || !new String(key, StandardCharsets.UTF_8).startsWith(currentPrefix)) {
+                            batch.add(key);
+                        }
+                        if (batch.size() == UNLINK_BATCH_SIZE) {
+                            removed += unlink(connection, batch);
+                        }
+                    }
+                }
+                return removed + unlink(connection, batch);
+            });
+        } catch (DataAccessException e) {
+            log.error("Error purging stale plan cache entries : {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private static long unlink(RedisConnection connection, List<byte[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Long removed = connection.keyCommands().unlink(batch.toArray(new byte[0][]));
+        batch.clear();
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Receives invalidation messages published by any node, including this one.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(INVALIDATE_PLAN)) {
+            planDetailNearCache.invalidate(PLAN_DETAIL_PREFIX + body.substring(INVALIDATE_PLAN.length()));
+        } else if (INVALIDATE_PLANS.equals(body)) {
+            planNearCache.invalidateAll();
+        } else if (body.startsWith(INVALIDATE_PLANS + ":")) {
+            try {
+                advanceGeneration(Long.parseLong(body.substring(INVALIDATE_PLANS.length() + 1)));
+            } catch (NumberFormatException e) {
+                log.error("Ignoring malformed invalidation message : {}", body);
+            }
+        }
+    }
+
+    private void advanceGeneration(long next) {
+        // entries of older generations can no longer be read, so the near cache only needs clearing on a change
+        if (next > generation.getAndAccumulate(next, Math::max)) {
+            planNearCache.invalidateAll();
+            generationListeners.forEach(listener -> listener.accept(next));
+        }
+    }
+
+    private static String generationPrefix(long generation) {
+        return BROADBANDPLANS + "_v" + generation + "_";
+    }
 }
@@ -0,0 +1,22 @@
+package com.excitel.redishelper;
+
+import com.excitel.model.BroadbandConnection;
+import com.excitel.model.BroadbandPlan;
+
+/**
+ * Encodes cached values to the raw bytes stored in Redis and back.
+ */
+public interface CacheCodec {
+
+    byte[] encodePlans(CachedPlans entry);
+
+    CachedPlans decodePlans(byte[] payload);
+
+    byte[] encodePlan(BroadbandPlan plan);
+
+    BroadbandPlan decodePlan(byte[] payload);
+
+    byte[] encodeConnection(BroadbandConnection connection);
+
+    BroadbandConnection decodeConnection(byte[] payload);
+}
@@ -0,0 +1,20 @@
+package com.excitel.redishelper;
+
+import com.excitel.model.BroadbandPlan;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A cached plan listing together with the time it was stored, used to tell fresh entries from stale ones.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"storedAt", "plans"})
+public class CachedPlans {
+    private long storedAt;//NOSONAR
+    private List<BroadbandPlan> plans;//NOSONAR
+}
@@ -0,0 +1,99 @@
+package com.excitel.redishelper;
+
+import com.excitel.model.BroadbandConnection;
+import com.excitel.model.BroadbandPlan;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * Jackson based cache codec. Readers and writers are built once and shared, they are immutable and thread-safe.
+ * The Smile variant writes Jackson's binary JSON format, which keeps the data model of JSON but drops the
+ * text encoding and repeated property names.
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    private final ObjectWriter plansWriter;
+    private final ObjectReader plansReader;
+    private final ObjectWriter planWriter;
+    private final ObjectReader planReader;
+    private final ObjectWriter connectionWriter;
+    private final ObjectReader connectionReader;
+
+    JacksonCacheCodec(ObjectMapper objectMapper) {
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.plansWriter = objectMapper.writerFor(CachedPlans.class);
+        this.plansReader = objectMapper.readerFor(CachedPlans.class);
+        this.planWriter = objectMapper.writerFor(BroadbandPlan.class);
+        this.planReader = objectMapper.readerFor(BroadbandPlan.class);
+        this.connectionWriter = objectMapper.writerFor(BroadbandConnection.class);
+        this.connectionReader = objectMapper.readerFor(BroadbandConnection.class);
+    }
+
+    public static JacksonCacheCodec smile() {
+        return new JacksonCacheCodec(new ObjectMapper(new SmileFactory()));
+    }
+
+    public static JacksonCacheCodec json() {
+        return new JacksonCacheCodec(new ObjectMapper());
+    }
+
+    @Override
+    public byte[] encodePlans(CachedPlans entry) {
+        try {
+            return plansWriter.writeValueAsBytes(entry);
+        } catch (IOException e) {
+            throw new SerializationException("Error occurred while serializing BroadbandPlans", e);
+        }
+    }
+
+    @Override
+    public CachedPlans decodePlans(byte[] payload) {
+        try {
+            return plansReader.readValue(payload);
+        } catch (IOException e) {
+            throw new SerializationException("Error occurred while deserializing BroadbandPlans", e);
+        }
+    }
+
+    @Override
+    public byte[] encodePlan(BroadbandPlan plan) {
+        try {
+            return planWriter.writeValueAsBytes(plan);
+        } catch (IOException e) {
+            throw new SerializationException("Error occurred while serializing BroadbandPlan", e);
+        }
+    }
+
+    @Override
+    public BroadbandPlan decodePlan(byte[] payload) {
+        try {
+            return planReader.readValue(payload);
+        } catch (IOException e) {
+            throw new SerializationException("Error occurred while deserializing BroadbandPlan", e);
+        }
+    }
+
+    @Override
+    public byte[] encodeConnection(BroadbandConnection connection) {
+        try {
+            return connectionWriter.writeValueAsBytes(connection);
+        } catch (IOException e) {
+            throw new SerializationException("Error occurred while serializing BroadbandConnection", e);
+        }
+    }
+
+    @Override
+    public BroadbandConnection decodeConnection(byte[] payload) {
+        try {
+            return connectionReader.readValue(payload);
+        } catch (IOException e) {
+            throw new SerializationException("Error occurred while deserializing BroadbandConnection", e);
+        }
+    }
+}
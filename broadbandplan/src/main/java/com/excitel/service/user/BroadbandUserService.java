@@ -5,9 +5,12 @@ import com.excitel.model.BroadbandConnection;
 import com.excitel.model.BroadbandPlan;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BroadbandUserService {
     List<BroadbandPlan> getBroadbandPlanWithQuery(RequestDTO params);
+    String getNextPageToken(RequestDTO params, List<BroadbandPlan> page);
     BroadbandConnection createBroadbandConnection(BroadbandConnection broadbandConnection, String mobileNumber);
     BroadbandConnection getConnectionDetailsForUser(String mobileNumber, String status);
+    CompletableFuture<BroadbandConnection> getConnectionDetailsForUserAsync(String mobileNumber, String status);
 }
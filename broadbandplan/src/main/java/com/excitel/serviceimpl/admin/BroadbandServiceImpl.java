@@ -1,5 +1,7 @@
 package com.excitel.serviceimpl.admin;
 
+import com.excitel.catalog.CatalogVersion;
+import com.excitel.catalog.PlanCatalog;
 import com.excitel.dynamodbqueryhelp.QueryHelper;
 import com.excitel.dynamodbqueryhelp.QueryWrapper;
 import com.excitel.redishelper.BroadbandRedis;
@@ -29,8 +31,12 @@ public class BroadbandServiceImpl implements BroadbandService {
     private QueryWrapper queryWrapper;
     @Autowired //NOSONAR
     private DynamoDbClient dynamoDbClient;
-    @Autowired
-    private BroadbandRedis  broadbandRedis;
+    @Autowired //NOSONAR
+    private BroadbandRedis broadbandRedis;
+    @Autowired //NOSONAR
+    private PlanCatalog planCatalog;
+    @Autowired //NOSONAR
+    private CatalogVersion catalogVersion;
 
     /**
      * Adds a new broadband plan to the database.
@@ -51,8 +57,9 @@ public class BroadbandServiceImpl implements BroadbandService {
             if (response != null && response.sdkHttpResponse().isSuccessful()) {
                 GetItemRequest getRequest = queryHelper.getItemByPlanId(uuid,broadbandPlan.getPlanType());
                 Map<String, AttributeValue> updatedItem = dynamoDbClient.getItem(getRequest).item();
-                broadbandRedis.clearBroadbandCache();
-                return queryWrapper.mapToBroadbandPlan(updatedItem);
+                BroadbandPlan addedPlan = queryWrapper.mapToBroadbandPlan(updatedItem);
+                planCatalog.publish(addedPlan, catalogVersion.bump());
+                return addedPlan;
             }
         } catch (SdkException exception) { // throw error when db connection failed
             log.error("Error Connecting to Database : {}",exception.getMessage());
@@ -81,8 +88,10 @@ public class BroadbandServiceImpl implements BroadbandService {
             updatedItem = dynamoDbClient.getItem(getRequest).item();
         }
         if (updatedItem != null && !updatedItem.isEmpty()) {
-            broadbandRedis.clearBroadbandCache();
-            return queryWrapper.mapToBroadbandPlan(updatedItem);
+            BroadbandPlan updatedPlan = queryWrapper.mapToBroadbandPlan(updatedItem);
+            broadbandRedis.evictPlanDetail(updatedPlan.getPlanType(), planId);
+            planCatalog.publish(updatedPlan, catalogVersion.bump());
+            return updatedPlan;
         } else { // throw error when the response is null
             log.error("Found no Plans in the updated Item");
             throw new NoPlanFoundException(NO_PLAN.getValue() + planId);
@@ -113,7 +122,10 @@ public class BroadbandServiceImpl implements BroadbandService {
             log.error(NO_PLAN + "{}", planId);
             throw new NoPlanFoundException(NO_PLAN + planId);
         }
-        broadbandRedis.clearBroadbandCache();
+        // the delete is a soft delete, so the catalog keeps the plan marked inactive
+        broadbandPlan.setActive("False");
+        broadbandRedis.evictPlanDetail(broadbandPlan.getPlanType(), planId);
+        planCatalog.publish(broadbandPlan, catalogVersion.bump());
         return true;
     }
 }
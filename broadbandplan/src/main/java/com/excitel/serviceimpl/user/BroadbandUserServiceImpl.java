@@ -1,7 +1,9 @@
 package com.excitel.serviceimpl.user;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.excitel.catalog.PlanCatalog;
+import com.excitel.catalog.PlanIndex;
 import com.excitel.dto.RequestDTO;
+import com.excitel.dynamodbqueryhelp.PageTokenCodec;
 import com.excitel.dynamodbqueryhelp.QueryConnectionHelper;
 import com.excitel.dynamodbqueryhelp.QueryWrapper;
 import com.excitel.exception.custom.DatabaseConnectionException;
@@ -9,16 +11,27 @@ import com.excitel.exception.custom.DuplicatePhoneNumberException;
 import com.excitel.exception.custom.NoPlanFoundException;
 import com.excitel.model.BroadbandConnection;
 import com.excitel.model.BroadbandPlan;
+import com.excitel.optimize.SingleFlight;
 import com.excitel.redishelper.BroadbandRedis;
 import com.excitel.service.user.BroadbandUserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.web.bind.annotation.RequestBody;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 
@@ -26,9 +39,6 @@ import software.amazon.awssdk.services.dynamodb.model.*;
 public class BroadbandUserServiceImpl implements BroadbandUserService {
 
     private static final Logger log = LoggerFactory.getLogger(BroadbandUserServiceImpl.class);
-    @Autowired //NOSONAR
-    private AmazonDynamoDB amazonDynamoDB;
-
     @Autowired //NOSONAR
     private QueryConnectionHelper queryConnectionHelper;
 
@@ -38,47 +48,192 @@ public class BroadbandUserServiceImpl implements BroadbandUserService {
     @Autowired //NOSONAR
     DynamoDbClient dynamoDbClient;
 
+    @Autowired(required = false) //NOSONAR
+    private DynamoDbAsyncClient dynamoDbAsyncClient;
+
     @Autowired //NOSONAR
     private BroadbandRedis broadbandRedis;
 
+    @Autowired //NOSONAR
+    private PlanCatalog planCatalog;
+
+    @Autowired //NOSONAR
+    private PageTokenCodec pageTokenCodec;
+
+    @Value("${broadband.cache.lock.enabled:false}")
+    private boolean distributedLockEnabled;
+
+    @Value("${broadband.cache.lock.lease-ms:5000}")
+    private long lockLeaseMs;
+
+    @Value("${broadband.cache.lock.wait-ms:2000}")
+    private long lockWaitMs;
+
+    private final SingleFlight<String, List<BroadbandPlan>> planLoads = new SingleFlight<>();
+
+    @Autowired //NOSONAR
+    @Qualifier("planRefreshExecutor")
+    private Executor planRefreshExecutor;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
     /**
      * Retrieves broadband plans based on the provided parameters.
+     * Served from the in-memory plan catalog once it is loaded at the current plan cache generation, otherwise,
+     * e.g. while it reloads after a write made through another node, from Redis and DynamoDB.
      *
      * @param params The request parameters.
      * @return A list of broadband plans matching the query.
      */
     @Override
     public List<BroadbandPlan> getBroadbandPlanWithQuery(RequestDTO params) {
-        String active = params.getActive();
-        String planId = params.getPlanId();
-        String type = params.getType();
-        String category = params.getCategory();
-        String data = params.getData();
-        String speed = params.getSpeed();
-        Integer offset = params.getOffset();
+        if (planCatalog.isCurrent()) {
+            return planCatalog.current().query(params, pageTokenCodec.decodeKey(params.getNextToken()));
+        }
+        // a continuation token positions the page by key, so the offset only applies to the first page
+        int offset = params.getNextToken() == null && params.getOffset() != null ? Math.max(params.getOffset(), 0) : 0;
         Integer limit = params.getLimit();
 
         List<BroadbandPlan> broadbandPlans1;
         String cacheKey = broadbandRedis.createRedisKey(params);
         broadbandPlans1 = broadbandRedis.getBroadbandPlansCache(cacheKey);
         if (broadbandPlans1 != null) {
+            // past the soft TTL the stale page is still served, and reloaded in the background
+            if (broadbandRedis.isBroadbandPlansStale(cacheKey)) {
+                refreshInBackground(params, cacheKey, offset, limit);
+            }
             return broadbandPlans1;
         }
 
-        List<BroadbandPlan> broadbandPlans = new ArrayList<>();
-        RequestDTO requestDTO = new RequestDTO( active, planId,type, category, data, speed, offset, limit);
-        QueryRequest queryRequest = buildQueryRequest(requestDTO);
-        QueryResponse queryResponse1 = dynamoDbClient.query(queryRequest);
-        for (Map<String, AttributeValue> item : queryResponse1.items()) {
-            BroadbandPlan broadbandPlan = queryWrapper.mapToBroadbandPlan(item);
-            broadbandPlans.add(broadbandPlan);
+        // concurrent misses on the same key share one load instead of each querying DynamoDB
+        return planLoads.execute(cacheKey, () -> loadPlans(params, cacheKey, offset, limit));
+    }
+
+    /**
+     * Loads a page of plans into the cache, run by a single caller per cache key on this node.
+     * With the distributed lock enabled, only the node holding the Redis lease queries DynamoDB,
+     * the others wait for its result to appear in the cache.
+     */
+    private List<BroadbandPlan> loadPlans(RequestDTO params, String cacheKey, int offset, Integer limit) {
+        // a previous flight may have filled the cache between our miss and taking the lead
+        List<BroadbandPlan> cached = broadbandRedis.getBroadbandPlansCache(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        String lease = null;
+        if (distributedLockEnabled) {
+            try {
+                lease = broadbandRedis.acquireLoadLease(cacheKey, Duration.ofMillis(lockLeaseMs));
+                if (lease == null) {
+                    cached = broadbandRedis.awaitBroadbandPlansCache(cacheKey, Duration.ofMillis(lockWaitMs));
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+            } catch (DataAccessException e) { // the lock is an optimisation, load without it
+                log.error("Error acquiring plan load lease : {}", e.getMessage());
+            }
+        }
+        try {
+            List<BroadbandPlan> broadbandPlans = queryPlans(params, offset, limit);
+            broadbandRedis.addBroadbandPlansCache(cacheKey, broadbandPlans);
+            return broadbandPlans;
+        } finally {
+            if (lease != null) {
+                broadbandRedis.releaseLoadLease(cacheKey, lease);
+            }
+        }
+    }
+
+    /**
+     * Reloads a stale cache entry on the refresh executor, at most once at a time per key on this node.
+     * With the distributed lock enabled, a node that cannot take the lease leaves the refresh to the holder.
+     */
+    private void refreshInBackground(RequestDTO params, String cacheKey, int offset, Integer limit) {
+        if (!refreshing.add(cacheKey)) {
+            return;
         }
-        if (offset != null && limit != null) {
-            broadbandPlans = broadbandPlans.subList(offset, Math.min(offset + limit, broadbandPlans.size()));
+        try {
+            planRefreshExecutor.execute(() -> {
+                try {
+                    refreshPlans(params, cacheKey, offset, limit);
+                } finally {
+                    refreshing.remove(cacheKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(cacheKey);
+        }
+    }
+
+    private void refreshPlans(RequestDTO params, String cacheKey, int offset, Integer limit) {
+        String lease = null;
+        try {
+            if (distributedLockEnabled) {
+                lease = broadbandRedis.acquireLoadLease(cacheKey, Duration.ofMillis(lockLeaseMs));
+                if (lease == null) {
+                    return;
+                }
+            }
+            broadbandRedis.addBroadbandPlansCache(cacheKey, queryPlans(params, offset, limit));
+        } catch (RuntimeException e) { // the stale entry keeps being served until the hard TTL
+            log.error("Error refreshing plan cache entry {} : {}", cacheKey, e.getMessage());
+        } finally {
+            if (lease != null) {
+                broadbandRedis.releaseLoadLease(cacheKey, lease);
+            }
+        }
+    }
+
+    /**
+     * Streams the query results page by page and maps items lazily, following LastEvaluatedKey across
+     * DynamoDB's 1 MB pages. Stops reading as soon as the offset/limit window is filled.
+     *
+     * @param params The request parameters
+     * @param offset The number of matching plans to skip
+     * @param limit  The maximum number of plans to return, or null for all of them
+     * @return The plans in the requested window
+     */
+    private List<BroadbandPlan> queryPlans(RequestDTO params, int offset, Integer limit) {
+        int pageSize = limit != null ? Math.max(limit, 0) : Integer.MAX_VALUE;
+        List<BroadbandPlan> broadbandPlans = new ArrayList<>(Math.min(pageSize, 64));
+        if (pageSize == 0) {
+            return broadbandPlans;
+        }
+        Iterator<Map<String, AttributeValue>> items = dynamoDbClient.queryPaginator(buildQueryRequest(params)).items().iterator();
+        int skipped = 0;
+        while (broadbandPlans.size() < pageSize && items.hasNext()) {
+            BroadbandPlan broadbandPlan = queryWrapper.mapToBroadbandPlan(items.next());
+            // numeric ranges cannot be expressed on the string attributes, so they are applied here
+            if (!PlanIndex.inRanges(broadbandPlan, params)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                broadbandPlans.add(broadbandPlan);
+            }
         }
-        broadbandRedis.addBroadbandPlansCache(cacheKey, broadbandPlans);
         return broadbandPlans;
     }
+
+    /**
+     * Returns the continuation token for a page of plans.
+     * A token is only issued for a full page, a shorter page means the results are exhausted.
+     *
+     * @param params The request parameters the page was queried with
+     * @param page   The page returned for those parameters
+     * @return The token to request the next page with, or null if this is the last page
+     */
+    @Override
+    public String getNextPageToken(RequestDTO params, List<BroadbandPlan> page) {
+        Integer limit = params.getLimit();
+        if (page == null || page.isEmpty() || limit == null || page.size() < limit) {
+            return null;
+        }
+        return pageTokenCodec.encode(page.get(page.size() - 1));
+    }
+
     /**
      * Builds a query request based on the provided request parameters.
      *
@@ -90,47 +245,54 @@ public class BroadbandUserServiceImpl implements BroadbandUserService {
         String active = response.getActive();
         String planId = response.getPlanId();
         String speed = response.getSpeed();
+        String category = response.getCategory();
+        String data = response.getData();
         Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
         List<String> filterConditions = new ArrayList<>();
         QueryRequest.Builder queryRequestBuilder = QueryRequest.builder()
                 .tableName("plan-table");
 
-        // Handle filter conditions based on provided parameters
+        // Handle key conditions based on provided parameters
         if (planId != null) {
             expressionAttributeValues.put(":planId", AttributeValue.builder().s(planId).build());
             expressionAttributeValues.put(":planType", AttributeValue.builder().s(type).build());
 
             queryRequestBuilder.keyConditionExpression("PlanType = :planType AND PlanID = :planId");
-            if (active != null) {
-                expressionAttributeValues.put(":active", AttributeValue.builder().s(active).build());
-                queryRequestBuilder.filterExpression("Active = :active")
-                        .expressionAttributeValues(expressionAttributeValues);
-            }
-            queryRequestBuilder.expressionAttributeValues(expressionAttributeValues);
-        } else { // Use filter expression for other attributes
-            if (type != null) {
-                expressionAttributeValues.put(":type", AttributeValue.builder().s(type).build());
-                queryRequestBuilder.keyConditionExpression("PlanType = :type");
-            }
-            if (active != null) {
-                expressionAttributeValues.put(":active", AttributeValue.builder().s(active).build());
-                filterConditions.add("Active = :active");
-            }
-            if (speed != null) {
-                expressionAttributeValues.put(":speed", AttributeValue.builder().s(speed).build());
-                filterConditions.add("Speed = :speed");
-            }
-
-            if (!filterConditions.isEmpty()) {
-                String combinedFilterExpression = String.join(" AND ", filterConditions);
+        } else if (type != null) {
+            expressionAttributeValues.put(":type", AttributeValue.builder().s(type).build());
+            queryRequestBuilder.keyConditionExpression("PlanType = :type");
+        }
+        // Use filter expression for other attributes
+        if (active != null) {
+            expressionAttributeValues.put(":active", AttributeValue.builder().s(active).build());
+            filterConditions.add("Active = :active");
+        }
+        if (speed != null) {
+            expressionAttributeValues.put(":speed", AttributeValue.builder().s(speed).build());
+            filterConditions.add("Speed = :speed");
+        }
+        if (category != null) {
+            expressionAttributeValues.put(":category", AttributeValue.builder().s(category).build());
+            filterConditions.add("Category = :category");
+        }
+        if (data != null) {
+            expressionAttributeValues.put(":data", AttributeValue.builder().s(data).build());
+            filterConditions.add("TotalData = :data");
+        }
 
-                queryRequestBuilder = queryRequestBuilder.filterExpression(combinedFilterExpression)
-                        .expressionAttributeValues(expressionAttributeValues);
-            }else{
-                queryRequestBuilder=queryRequestBuilder.expressionAttributeValues(expressionAttributeValues);
-            }
+        if (!filterConditions.isEmpty()) {
+            queryRequestBuilder.filterExpression(String.join(" AND ", filterConditions));
+        }
+        // push the page window down, so a page costs reads proportional to its size rather than the partition
+        if (response.getLimit() != null) {
+            int offset = response.getNextToken() == null && response.getOffset() != null ? Math.max(response.getOffset(), 0) : 0;
+            queryRequestBuilder.limit((int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) offset + response.getLimit())));
         }
-        return queryRequestBuilder.build();
+        Map<String, AttributeValue> exclusiveStartKey = pageTokenCodec.toExclusiveStartKey(response.getNextToken(), type);
+        if (exclusiveStartKey != null) {
+            queryRequestBuilder.exclusiveStartKey(exclusiveStartKey);
+        }
+        return queryRequestBuilder.expressionAttributeValues(expressionAttributeValues).build();
     }
     /**
      * Creates a new broadband connection.
@@ -195,4 +357,47 @@ public class BroadbandUserServiceImpl implements BroadbandUserService {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves connection details for a user without blocking the calling thread.
+     * A cache hit completes immediately, a miss is read through the non-blocking DynamoDB client.
+     *
+     * @param mobileNumber The mobile number of the user.
+     * @param status       The status of the connection.
+     * @return Future of the user's connection details, failed with a NoPlanFoundException if there is no
+     * such connection or a DatabaseConnectionException if DynamoDB cannot be reached.
+     */
+    @Override
+    public CompletableFuture<BroadbandConnection> getConnectionDetailsForUserAsync(String mobileNumber, String status) {
+        BroadbandConnection connectionCache = broadbandRedis.getConnectionDetailsCache(mobileNumber, status);
+        if (connectionCache != null) {
+            return CompletableFuture.completedFuture(connectionCache);
+        }
+        if (dynamoDbAsyncClient == null) { // without the non-blocking client, read on the calling thread
+            try {
+                return CompletableFuture.completedFuture(getConnectionDetailsForUser(mobileNumber, status));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        GetItemRequest request = queryConnectionHelper.getItemByMobileNumber(mobileNumber, status);
+        return dynamoDbAsyncClient.getItem(request).handle((response, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                log.error("Error Connecting to Database");
+                if (cause instanceof SdkException) {
+                    throw new DatabaseConnectionException("Error Connecting to Database");
+                }
+                throw new CompletionException(cause);
+            }
+            Map<String, AttributeValue> getItem = response.item();
+            if (getItem != null && !getItem.isEmpty()) {
+                BroadbandConnection connection = queryWrapper.mapToBroadbandConnection(getItem);
+                broadbandRedis.addConnectionDetailCache(mobileNumber, status, connection);
+                return connection;
+            }
+            log.error("No Connection found with mobile Number: {}", mobileNumber);
+            throw new NoPlanFoundException("No Connection found with mobile Number: " + mobileNumber);
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.excitel.tracing;
+
+/**
+ * A finished, sampled method call.
+ *
+ * @param traceId        The ID shared by every span of one sampled call tree
+ * @param spanId         The ID of this span
+ * @param parentId       The ID of the calling span, 0 for the root of the trace
+ * @param name           The traced method, e.g. BroadbandUserServiceImpl.getBroadbandPlanWithQuery(..)
+ * @param startEpochMicros When the call started
+ * @param durationNanos  How long the call ran on its thread
+ * @param error          The exception the call ended with, or null if it returned
+ */
+public record Span(long traceId, long spanId, long parentId, String name, long startEpochMicros, long durationNanos,
+                   String error) {
+}
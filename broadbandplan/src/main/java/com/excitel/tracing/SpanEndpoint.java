@@ -0,0 +1,24 @@
+package com.excitel.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Serves the most recent sampled spans at /actuator/spans, oldest first.
+ */
+@Component
+@Endpoint(id = "spans")
+public class SpanEndpoint {
+
+    @Autowired //NOSONAR
+    private TracingAspect tracingAspect;
+
+    @ReadOperation
+    public List<Span> spans() {
+        return tracingAspect.getSpans().snapshot();
+    }
+}
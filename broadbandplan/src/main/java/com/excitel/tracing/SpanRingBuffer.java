@@ -0,0 +1,60 @@
+package com.excitel.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free buffer of the most recent spans.
+ * Writers claim a slot with a single atomic increment and overwrite whatever it held, so recording never blocks
+ * and never waits for readers. Readers get a best-effort copy: a slot overwritten while it is being read shows the
+ * newer span.
+ */
+public class SpanRingBuffer {
+
+    private final AtomicReferenceArray<Span> slots;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * @param capacity The number of spans to keep, rounded up to a power of two
+     */
+    public SpanRingBuffer(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public void record(Span span) {
+        long sequence = written.getAndIncrement();
+        slots.lazySet((int) (sequence & mask), span);
+    }
+
+    /**
+     * @return The spans still held, oldest first
+     */
+    public List<Span> snapshot() {
+        long end = written.get();
+        long start = Math.max(0, end - slots.length());
+        List<Span> spans = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Span span = slots.get((int) (sequence & mask));
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return The number of spans recorded since start, including those already overwritten
+     */
+    public long written() {
+        return written.get();
+    }
+}
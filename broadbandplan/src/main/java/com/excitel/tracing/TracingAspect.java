@@ -0,0 +1,80 @@
+package com.excitel.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampled tracing of controller and service calls.
+ * A call that is not inside a sampled trace is sampled with the configured rate. Once sampled, it and every traced
+ * call it makes on the same thread are recorded as spans into a {@link SpanRingBuffer}, which can be read at
+ * /actuator/spans. Unsampled calls only read a volatile and a thread local, and allocate nothing; with a
+ * sample rate of 0, the default, they skip the thread local as well.
+ * Durations cover the time spent on the calling thread, the remainder of a returned future is not included.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final ThreadLocal<ActiveSpan> active = new ThreadLocal<>();
+    private final AtomicLong ids = new AtomicLong();
+    private volatile double sampleRate;
+    private SpanRingBuffer spans = new SpanRingBuffer(4096);
+
+    @Autowired
+    public void configure(@Value("${broadband.tracing.sample-rate:0}") double sampleRate,
+                          @Value("${broadband.tracing.buffer-size:4096}") int bufferSize) {
+        this.sampleRate = sampleRate;
+        this.spans = new SpanRingBuffer(bufferSize);
+    }
+
+    public void setSampleRate(double sampleRate) { //NOSONAR
+        this.sampleRate = sampleRate; //NOSONAR
+    } //NOSONAR
+
+    public SpanRingBuffer getSpans() {
+        return spans;
+    }
+
+    @Around("execution(* com.excitel.controller..*.*(..)) || execution(* com.excitel.serviceimpl..*.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        double rate = sampleRate;
+        if (rate <= 0) {
+            return joinPoint.proceed();
+        }
+        ActiveSpan parent = active.get();
+        if (parent == null && (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return joinPoint.proceed();
+        }
+        long spanId = ids.incrementAndGet();
+        ActiveSpan span = new ActiveSpan(parent != null ? parent.traceId() : spanId, spanId);
+        active.set(span);
+        long startEpochMicros = System.currentTimeMillis() * 1000;
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long durationNanos = System.nanoTime() - start;
+            if (parent != null) {
+                active.set(parent);
+            } else {
+                active.remove();
+            }
+            spans.record(new Span(span.traceId(), spanId, parent != null ? parent.spanId() : 0,
+                    joinPoint.getSignature().toShortString(), startEpochMicros, durationNanos, error));
+        }
+    }
+
+    private record ActiveSpan(long traceId, long spanId) {
+    }
+}
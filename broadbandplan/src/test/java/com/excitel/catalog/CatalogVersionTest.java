@@ -0,0 +1,104 @@
+package com.excitel.catalog;
+
+import com.excitel.redishelper.BroadbandRedis;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionTest {
+
+    @InjectMocks
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private BroadbandRedis broadbandRedis;
+
+    @Mock
+    private PlanCatalog planCatalog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldAdvanceVersionOnBump() {
+        // Arrange
+        when(broadbandRedis.currentGeneration()).thenReturn(0L, 1L, 1L);
+
+        // Act
+        long generation = catalogVersion.bump();
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+
+        // Assert
+        verify(broadbandRedis).clearBroadbandCache();
+        assertEquals(1, generation);
+        assertNotNull(stamp);
+        assertEquals(1, stamp.version());
+        assertEquals(0, stamp.lastModified() % 1000);
+    }
+
+    @Test
+    void shouldWithholdValidatorsWhenGenerationCannotAdvance() {
+        // Arrange
+        when(broadbandRedis.currentGeneration()).thenReturn(0L);
+
+        // Act
+        long generation = catalogVersion.bump();
+
+        // Assert
+        assertEquals(-1, generation);
+        assertNull(catalogVersion.current());
+    }
+
+    @Test
+    void shouldFollowGenerationDirectlyWithoutCatalog() {
+        // Arrange
+        when(broadbandRedis.currentGeneration()).thenReturn(4L);
+        when(planCatalog.isLoaded()).thenReturn(false);
+
+        // Act
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+
+        // Assert
+        assertEquals(4, stamp.version());
+        verify(planCatalog, never()).catchUp();
+    }
+
+    @Test
+    void shouldWaitForCatalogToCatchUpBeforeServingRemoteWrite() {
+        // Arrange
+        when(broadbandRedis.currentGeneration()).thenReturn(3L);
+        when(planCatalog.isLoaded()).thenReturn(true);
+        when(planCatalog.isCurrent()).thenReturn(false, true);
+
+        // Act
+        CatalogVersion.Stamp whileStale = catalogVersion.current();
+        CatalogVersion.Stamp afterReload = catalogVersion.current();
+
+        // Assert
+        assertNull(whileStale);
+        verify(planCatalog).catchUp();
+        assertEquals(3, afterReload.version());
+    }
+
+    @Test
+    void shouldKeepWithholdingWhileCatalogIsBehind() {
+        // Arrange
+        when(broadbandRedis.currentGeneration()).thenReturn(3L);
+        when(planCatalog.isLoaded()).thenReturn(true);
+        when(planCatalog.isCurrent()).thenReturn(false);
+
+        // Act
+        catalogVersion.current();
+
+        // Assert
+        assertNull(catalogVersion.current());
+        verify(planCatalog, times(2)).catchUp();
+    }
+}
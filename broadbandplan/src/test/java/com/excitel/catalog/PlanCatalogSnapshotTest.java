@@ -0,0 +1,157 @@
+package com.excitel.catalog;
+
+import com.excitel.dto.RequestDTO;
+import com.excitel.model.BroadbandPlan;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanCatalogSnapshotTest {
+
+    private static BroadbandPlan plan(String planId, String active, String speed) {
+        return BroadbandPlan.builder()
+                .planId(planId)
+                .planType("Broadband")
+                .price("499")
+                .validity("28")
+                .active(active)
+                .speed(speed)
+                .build();
+    }
+
+    private final PlanCatalogSnapshot snapshot = new PlanCatalogSnapshot(1, Instant.now(), List.of(
+            plan("c", "True", "100"),
+            plan("a", "True", "50"),
+            plan("b", "False", "100"),
+            plan("d", "True", "100")));
+
+    @Test
+    void shouldKeepPlansInKeyOrder() {
+        // Act
+        List<BroadbandPlan> plans = snapshot.getPlans();
+
+        // Assert
+        assertEquals(List.of("a", "b", "c", "d"), plans.stream().map(BroadbandPlan::getPlanId).toList());
+        assertThrows(UnsupportedOperationException.class, () -> plans.add(new BroadbandPlan()));
+    }
+
+    @Test
+    void shouldFilterOnActiveAndSpeed() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setActive("True");
+        params.setSpeed("100");
+
+        // Act
+        List<BroadbandPlan> result = snapshot.query(params);
+
+        // Assert
+        assertEquals(List.of("c", "d"), result.stream().map(BroadbandPlan::getPlanId).toList());
+    }
+
+    @Test
+    void shouldFilterOnPlanId() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setPlanId("b");
+
+        // Act
+        List<BroadbandPlan> result = snapshot.query(params);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("b", result.get(0).getPlanId());
+    }
+
+    @Test
+    void shouldReturnNothingForOtherPlanType() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setType("Mobile");
+
+        // Act and Assert
+        assertTrue(snapshot.query(params).isEmpty());
+    }
+
+    @Test
+    void shouldApplyOffsetAndLimit() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setOffset(1);
+        params.setLimit(2);
+
+        // Act
+        List<BroadbandPlan> result = snapshot.query(params);
+
+        // Assert
+        assertEquals(List.of("b", "c"), result.stream().map(BroadbandPlan::getPlanId).toList());
+    }
+
+    @Test
+    void shouldStartPageAfterGivenKeyAndIgnoreOffset() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setOffset(3);
+        params.setLimit(2);
+        BroadbandPlan after = BroadbandPlan.builder().planType("Broadband").planId("a").build();
+
+        // Act
+        List<BroadbandPlan> result = snapshot.query(params, after);
+
+        // Assert
+        assertEquals(List.of("b", "c"), result.stream().map(BroadbandPlan::getPlanId).toList());
+    }
+
+    @Test
+    void shouldStartPageAfterKeyThatNoLongerExists() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setActive("True");
+        BroadbandPlan after = BroadbandPlan.builder().planType("Broadband").planId("bb").build();
+
+        // Act
+        List<BroadbandPlan> result = snapshot.query(params, after);
+
+        // Assert
+        assertEquals(List.of("c", "d"), result.stream().map(BroadbandPlan::getPlanId).toList());
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenOffsetIsPastTheEnd() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setOffset(10);
+
+        // Act and Assert
+        assertTrue(snapshot.query(params).isEmpty());
+    }
+
+    @Test
+    void withPlanShouldReplaceExistingPlanAndBumpVersion() {
+        // Arrange
+        BroadbandPlan updated = plan("b", "True", "300");
+
+        // Act
+        PlanCatalogSnapshot next = snapshot.withPlan(updated);
+
+        // Assert
+        assertEquals(2, next.getVersion());
+        assertEquals(4, next.size());
+        assertSame(updated, next.getPlans().get(1));
+        assertEquals("False", snapshot.getPlans().get(1).getActive());
+    }
+
+    @Test
+    void withPlanShouldInsertNewPlanInOrder() {
+        // Act
+        PlanCatalogSnapshot next = snapshot.withPlan(plan("bb", "True", "100"));
+
+        // Assert
+        assertEquals(5, next.size());
+        assertEquals("bb", next.getPlans().get(2).getPlanId());
+        assertEquals(4, snapshot.size());
+    }
+}
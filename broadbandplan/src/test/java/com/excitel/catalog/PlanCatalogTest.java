@@ -0,0 +1,233 @@
+package com.excitel.catalog;
+
+import com.excitel.dynamodbqueryhelp.QueryWrapper;
+import com.excitel.model.BroadbandPlan;
+import com.excitel.redishelper.BroadbandRedis;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PlanCatalogTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+
+    @Spy
+    private QueryWrapper queryWrapper = new QueryWrapper();
+
+    @Mock
+    private BroadbandRedis broadbandRedis;
+
+    private final Queue<Runnable> reloads = new ArrayDeque<>();
+
+    @InjectMocks
+    private PlanCatalog planCatalog;
+
+    PlanCatalogTest() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(planCatalog, "enabled", true);
+        ReflectionTestUtils.setField(planCatalog, "planRefreshExecutor", (Executor) reloads::add);
+    }
+
+    private static Map<String, AttributeValue> item(String planId) {
+        return Map.of(
+                "PlanType", AttributeValue.builder().s("Broadband").build(),
+                "PlanID", AttributeValue.builder().s(planId).build(),
+                "Active", AttributeValue.builder().s("True").build());
+    }
+
+    @Test
+    void shouldNotBeLoadedBeforeRefresh() {
+        assertFalse(planCatalog.isLoaded());
+        assertNull(planCatalog.current());
+    }
+
+    @Test
+    void refreshShouldFollowScanPages() {
+        // Arrange
+        Map<String, AttributeValue> lastKey = item("1");
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder().items(item("1")).lastEvaluatedKey(lastKey).build())
+                .thenReturn(ScanResponse.builder().items(item("2")).build());
+
+        // Act
+        planCatalog.refresh();
+
+        // Assert
+        assertTrue(planCatalog.isLoaded());
+        assertEquals(2, planCatalog.current().size());
+        assertEquals(1, planCatalog.current().getVersion());
+        verify(dynamoDbClient, times(2)).scan(any(ScanRequest.class));
+    }
+
+    @Test
+    void refreshShouldKeepPreviousSnapshotWhenScanFails() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder().items(item("1")).build())
+                .thenThrow(SdkException.builder().message("down").build());
+        planCatalog.refresh();
+        PlanCatalogSnapshot loaded = planCatalog.current();
+
+        // Act
+        planCatalog.refresh();
+
+        // Assert
+        assertSame(loaded, planCatalog.current());
+    }
+
+    @Test
+    void refreshShouldDoNothingWhenDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(planCatalog, "enabled", false);
+
+        // Act
+        planCatalog.refresh();
+
+        // Assert
+        assertFalse(planCatalog.isLoaded());
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    void publishShouldSwapInNewVersion() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder().items(item("1")).build());
+        planCatalog.refresh();
+        PlanCatalogSnapshot before = planCatalog.current();
+        BroadbandPlan added = BroadbandPlan.builder().planType("Broadband").planId("2").active("True").build();
+
+        // Act
+        planCatalog.publish(added, -1);
+
+        // Assert
+        assertEquals(before.getVersion() + 1, planCatalog.current().getVersion());
+        assertEquals(2, planCatalog.current().size());
+        assertEquals(1, before.size());
+    }
+
+    @Test
+    void shouldReloadInBackgroundWhenGenerationMoves() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder().items(item("1")).build())
+                .thenReturn(ScanResponse.builder().items(item("1"), item("2")).build());
+        when(broadbandRedis.currentGeneration()).thenReturn(0L);
+        planCatalog.loadOnStartup();
+        ArgumentCaptor<LongConsumer> listener = ArgumentCaptor.forClass(LongConsumer.class);
+        verify(broadbandRedis).addGenerationListener(listener.capture());
+
+        // Act
+        when(broadbandRedis.currentGeneration()).thenReturn(1L);
+        listener.getValue().accept(1L);
+        listener.getValue().accept(1L);
+        boolean currentWhileReloading = planCatalog.isCurrent();
+        reloads.remove().run();
+
+        // Assert
+        assertFalse(currentWhileReloading);
+        assertTrue(planCatalog.isCurrent());
+        assertEquals(2, planCatalog.current().size());
+        assertTrue(reloads.isEmpty(), "a reload already pending should absorb the second change");
+    }
+
+    @Test
+    void shouldReloadAgainWhenGenerationMovesDuringReload() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder().items(item("1")).build());
+        when(broadbandRedis.currentGeneration()).thenReturn(0L);
+        planCatalog.refresh();
+        // the reload reads generation 1, then a write moves it to 2 before the reload completes
+        when(broadbandRedis.currentGeneration()).thenReturn(1L, 2L, 2L);
+
+        // Act
+        planCatalog.catchUp();
+        reloads.remove().run();
+
+        // Assert
+        assertFalse(planCatalog.isCurrent());
+        assertEquals(1, reloads.size());
+        reloads.remove().run();
+        assertTrue(planCatalog.isCurrent());
+    }
+
+    @Test
+    void publishShouldKeepCatalogCurrentAtTheWritesGeneration() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder().items(item("1")).build());
+        when(broadbandRedis.currentGeneration()).thenReturn(0L);
+        planCatalog.refresh();
+        when(broadbandRedis.currentGeneration()).thenReturn(1L);
+
+        // Act
+        planCatalog.publish(BroadbandPlan.builder().planType("Broadband").planId("2").active("True").build(), 1);
+
+        // Assert
+        assertTrue(planCatalog.isCurrent());
+        assertEquals(2, planCatalog.current().size());
+    }
+
+    @Test
+    void publishShouldNotSkipWritesMadeThroughOtherNodes() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class))).thenReturn(ScanResponse.builder().items(item("1")).build());
+        when(broadbandRedis.currentGeneration()).thenReturn(0L);
+        planCatalog.refresh();
+        // another node wrote generation 1, which this catalog has not loaded yet
+        when(broadbandRedis.currentGeneration()).thenReturn(2L);
+
+        // Act
+        planCatalog.publish(BroadbandPlan.builder().planType("Broadband").planId("2").active("True").build(), 2);
+
+        // Assert
+        assertFalse(planCatalog.isCurrent());
+    }
+
+    @Test
+    void shouldStayBehindWhenReloadFails() {
+        // Arrange
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder().items(item("1")).build())
+                .thenThrow(SdkException.builder().message("down").build());
+        when(broadbandRedis.currentGeneration()).thenReturn(0L);
+        planCatalog.refresh();
+        when(broadbandRedis.currentGeneration()).thenReturn(1L);
+
+        // Act
+        planCatalog.catchUp();
+        reloads.remove().run();
+
+        // Assert
+        assertTrue(planCatalog.isLoaded());
+        assertFalse(planCatalog.isCurrent());
+        assertTrue(reloads.isEmpty());
+    }
+
+    @Test
+    void publishShouldBeIgnoredBeforeLoad() {
+        // Act
+        planCatalog.publish(new BroadbandPlan(), 1);
+
+        // Assert
+        assertFalse(planCatalog.isLoaded());
+    }
+}
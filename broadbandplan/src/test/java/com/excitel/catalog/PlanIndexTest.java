@@ -0,0 +1,124 @@
+package com.excitel.catalog;
+
+import com.excitel.dto.RequestDTO;
+import com.excitel.model.BroadbandPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanIndexTest {
+
+    private static BroadbandPlan plan(String planId, String category, String data, String speed, String price) {
+        return BroadbandPlan.builder()
+                .planId(planId)
+                .planType("Broadband")
+                .active("True")
+                .category(category)
+                .data(data)
+                .speed(speed)
+                .price(price)
+                .build();
+    }
+
+    private final PlanIndex index = new PlanIndex(List.of(
+            plan("0", "Home", "1000GB", "50", "299"),
+            plan("1", "Home", "Unlimited", "100Mbps", "499"),
+            plan("2", "Business", "Unlimited", "300", "999"),
+            plan("3", "Business", "3000GB", "1000", "1999"),
+            plan("4", "Home", "Unlimited", null, "n/a")));
+
+    private static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+
+    @Test
+    void shouldSelectEverythingWithoutFilters() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+
+        // Act and Assert
+        assertEquals(bits(0, 1, 2, 3, 4), index.select(params));
+    }
+
+    @Test
+    void shouldIntersectCategoryAndData() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setCategory("Home");
+        params.setData("Unlimited");
+
+        // Act and Assert
+        assertEquals(bits(1, 4), index.select(params));
+    }
+
+    @Test
+    void shouldReturnNothingForUnknownValue() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setCategory("Enterprise");
+
+        // Act and Assert
+        assertTrue(index.select(params).isEmpty());
+    }
+
+    @Test
+    void shouldSelectSpeedRangeInclusive() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setMinSpeed(100.0);
+        params.setMaxSpeed(300.0);
+
+        // Act and Assert
+        assertEquals(bits(1, 2), index.select(params));
+    }
+
+    @Test
+    void shouldCombinePriceRangeWithEqualityFilters() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setCategory("Business");
+        params.setMaxPrice(1000.0);
+
+        // Act and Assert
+        assertEquals(bits(2), index.select(params));
+    }
+
+    @Test
+    void shouldSelectOpenEndedRange() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setMinPrice(999.0);
+
+        // Act and Assert
+        assertEquals(bits(2, 3), index.select(params));
+    }
+
+    @Test
+    void inRangesShouldMatchTheIndex() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setMinSpeed(60.0);
+        params.setMaxPrice(600.0);
+
+        // Act and Assert
+        assertTrue(PlanIndex.inRanges(plan("1", null, null, "100Mbps", "499"), params));
+        assertFalse(PlanIndex.inRanges(plan("0", null, null, "50", "299"), params));
+        assertFalse(PlanIndex.inRanges(plan("4", null, null, null, "n/a"), params));
+        assertTrue(PlanIndex.inRanges(plan("4", null, null, null, "n/a"), new RequestDTO()));
+    }
+
+    @Test
+    void numericValueShouldParseLeadingNumber() {
+        assertEquals(100.0, PlanIndex.numericValue("100Mbps"));
+        assertEquals(49.5, PlanIndex.numericValue(" 49.5 "));
+        assertTrue(Double.isNaN(PlanIndex.numericValue("Unlimited")));
+        assertTrue(Double.isNaN(PlanIndex.numericValue(null)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.excitel.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DynamoDBConfigTest {
+
+    @Test
+    void shouldKeepSchemeOfLocalEndpoint() {
+        // Act and Assert
+        assertEquals(URI.create("http://localhost:8000"), DynamoDBConfig.endpointUri("http://localhost:8000"));
+    }
+
+    @Test
+    void shouldAddHttpsToHostOnlyEndpoint() {
+        // Act and Assert
+        assertEquals(URI.create("https://dynamodb.us-east-1.amazonaws.com"),
+                DynamoDBConfig.endpointUri(" dynamodb.us-east-1.amazonaws.com "));
+    }
+
+    @Test
+    void shouldUseRegionalEndpointWhenNoneIsConfigured() {
+        // Act and Assert
+        assertNull(DynamoDBConfig.endpointUri(""));
+    }
+
+    @Test
+    void shouldBuildBothClientsWithoutEndpointOverride() {
+        // Arrange
+        DynamoDBConfig config = new DynamoDBConfig();
+        ReflectionTestUtils.setField(config, "amazonDynamoDBEndpoint", "");
+        ReflectionTestUtils.setField(config, "amazonAWSAccessKey", "key");
+        ReflectionTestUtils.setField(config, "amazonAWSSecretKey", "secret");
+        ReflectionTestUtils.setField(config, "region", "ap-south-1");
+        ReflectionTestUtils.setField(config, "maxConnections", 10);
+        ReflectionTestUtils.setField(config, "asyncMaxConcurrency", 10);
+        ReflectionTestUtils.setField(config, "connectionTtlMs", 60000L);
+        ReflectionTestUtils.setField(config, "connectionMaxIdleMs", 30000L);
+        ReflectionTestUtils.setField(config, "connectionTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "socketTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "acquireTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(config, "apiCallTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(config, "apiCallAttemptTimeoutMs", 3000L);
+
+        // Act
+        try (DynamoDbClient client = config.dynamoDbClient();
+             DynamoDbAsyncClient asyncClient = config.dynamoDbAsyncClient()) {
+
+            // Assert
+            assertEquals("dynamodb", client.serviceName());
+            assertEquals("dynamodb", asyncClient.serviceName());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.excitel.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DynamoDbCallMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final DynamoDbCallMetrics callMetrics = new DynamoDbCallMetrics("sync");
+    private final ExecutionAttributes attributes = new ExecutionAttributes();
+
+    @BeforeEach
+    void setUp() {
+        callMetrics.bindTo(registry);
+        attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "Query");
+    }
+
+    @Test
+    void shouldTimeSuccessfulCallByOperation() {
+        // Arrange
+        callMetrics.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+
+        // Act
+        callMetrics.afterExecution(mock(Context.AfterExecution.class), attributes);
+
+        // Assert
+        Timer timer = registry.get("dynamodb.client.requests")
+                .tags("client", "sync", "operation", "Query", "outcome", "success").timer();
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void shouldCountFailureByException() {
+        // Arrange
+        Context.FailedExecution failed = mock(Context.FailedExecution.class);
+        when(failed.exception()).thenReturn(ProvisionedThroughputExceededException.builder().message("slow down").build());
+        callMetrics.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+
+        // Act
+        callMetrics.onExecutionFailure(failed, attributes);
+
+        // Assert
+        assertEquals(1, registry.get("dynamodb.client.requests").tags("outcome", "error").timer().count());
+        assertEquals(1, registry.get("dynamodb.client.errors")
+                .tags("operation", "Query", "exception", "ProvisionedThroughputExceededException").counter().count());
+    }
+
+    @Test
+    void shouldRecordPayloadSizes() {
+        // Arrange
+        Context.BeforeTransmission request = mock(Context.BeforeTransmission.class);
+        when(request.requestBody()).thenReturn(Optional.of(RequestBody.fromString("{\"TableName\":\"plans\"}")));
+        Context.AfterTransmission response = mock(Context.AfterTransmission.class);
+        when(response.httpResponse()).thenReturn(SdkHttpResponse.builder()
+                .statusCode(200)
+                .putHeader("Content-Length", "512")
+                .build());
+
+        // Act
+        callMetrics.beforeTransmission(request, attributes);
+        callMetrics.afterTransmission(response, attributes);
+
+        // Assert
+        assertEquals(21, registry.get("dynamodb.client.request.size").tags("operation", "Query").summary().totalAmount());
+        assertEquals(512, registry.get("dynamodb.client.response.size").tags("operation", "Query").summary().totalAmount());
+    }
+
+    @Test
+    void shouldRegisterEachMeterOnlyOnce() {
+        // Arrange
+        AtomicInteger registrations = new AtomicInteger();
+        MeterRegistry counting = new SimpleMeterRegistry();
+        counting.config().meterFilter(new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                registrations.incrementAndGet();
+                return id;
+            }
+        });
+        DynamoDbCallMetrics metrics = new DynamoDbCallMetrics("sync");
+        metrics.bindTo(counting);
+        Context.FailedExecution failure = mock(Context.FailedExecution.class);
+        when(failure.exception()).thenReturn(ProvisionedThroughputExceededException.builder().build());
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            metrics.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+            metrics.afterExecution(mock(Context.AfterExecution.class), attributes);
+            metrics.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+            metrics.onExecutionFailure(failure, attributes);
+        }
+
+        // Assert
+        assertEquals(3, registrations.get());
+        assertEquals(10, counting.get("dynamodb.client.requests").tags("outcome", "success").timer().count());
+        assertEquals(10, counting.get("dynamodb.client.errors").counter().count());
+    }
+
+    @Test
+    void shouldRecordNothingBeforeBinding() {
+        // Arrange
+        DynamoDbCallMetrics unbound = new DynamoDbCallMetrics("async");
+        unbound.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+
+        // Act
+        unbound.afterExecution(mock(Context.AfterExecution.class), attributes);
+
+        // Assert
+        assertNull(registry.find("dynamodb.client.requests").tags("client", "async").timer());
+    }
+}
@@ -0,0 +1,59 @@
+package com.excitel.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DynamoDbPoolMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final DynamoDbPoolMetrics poolMetrics = new DynamoDbPoolMetrics("sync");
+
+    @BeforeEach
+    void setUp() {
+        poolMetrics.bindTo(registry);
+    }
+
+    @Test
+    void shouldExposePoolStateReportedWithCall() {
+        // Arrange
+        MetricCollector apiCall = MetricCollector.create("ApiCall");
+        MetricCollector httpClient = apiCall.createChild("ApiCallAttempt").createChild("HttpClient");
+        httpClient.reportMetric(HttpMetric.LEASED_CONCURRENCY, 7);
+        httpClient.reportMetric(HttpMetric.PENDING_CONCURRENCY_ACQUIRES, 2);
+        httpClient.reportMetric(HttpMetric.AVAILABLE_CONCURRENCY, 3);
+        httpClient.reportMetric(HttpMetric.MAX_CONCURRENCY, 100);
+
+        // Act
+        poolMetrics.publish(apiCall.collect());
+
+        // Assert
+        assertEquals(7, gauge("leased"));
+        assertEquals(2, gauge("pending"));
+        assertEquals(3, gauge("available"));
+        assertEquals(100, gauge("max"));
+    }
+
+    @Test
+    void shouldKeepLatestStateWhenCallReportsNoPoolMetrics() {
+        // Arrange
+        MetricCollector first = MetricCollector.create("ApiCall");
+        first.createChild("ApiCallAttempt").createChild("HttpClient").reportMetric(HttpMetric.LEASED_CONCURRENCY, 4);
+        poolMetrics.publish(first.collect());
+
+        // Act
+        poolMetrics.publish(MetricCollector.create("ApiCall").collect());
+
+        // Assert
+        assertEquals(4, gauge("leased"));
+    }
+
+    private double gauge(String name) {
+        return registry.get("dynamodb.http.pool." + name).tag("client", "sync").gauge().value();
+    }
+}
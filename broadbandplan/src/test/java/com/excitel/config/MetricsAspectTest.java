@@ -0,0 +1,168 @@
+package com.excitel.config;
+
+import com.excitel.dto.ResponseDTO;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsAspectTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricsAspect metricsAspect = new MetricsAspect();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(metricsAspect, "meterRegistry", registry);
+    }
+
+    @Test
+    void shouldTrackHitRatioOfRedisLookups() throws Throwable {
+        // Arrange
+        ProceedingJoinPoint hit = joinPoint("getBroadbandPlansCache", List.of(), "key");
+        ProceedingJoinPoint miss = joinPoint("getBroadbandPlansCache", null, "key");
+
+        // Act
+        metricsAspect.timeRedisOperation(hit);
+        metricsAspect.timeRedisOperation(hit);
+        metricsAspect.timeRedisOperation(hit);
+        metricsAspect.timeRedisOperation(miss);
+
+        // Assert
+        assertEquals(3, registry.get("broadband.redis.lookups").tags("result", "hit").counter().count());
+        assertEquals(1, registry.get("broadband.redis.lookups").tags("result", "miss").counter().count());
+        assertEquals(0.75, registry.get("broadband.redis.hit.ratio").tags("operation", "getBroadbandPlansCache").gauge().value());
+        assertEquals(4, registry.get("broadband.redis.requests")
+                .tags("operation", "getBroadbandPlansCache", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void shouldRegisterEachMeterOnlyOnce() throws Throwable {
+        // Arrange
+        AtomicInteger registrations = new AtomicInteger();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                registrations.incrementAndGet();
+                return id;
+            }
+        });
+        ProceedingJoinPoint write = joinPoint("addBroadbandPlansCache", null, "key", List.of());
+        ProceedingJoinPoint failing = joinPoint("clearBroadbandCache", null);
+        when(failing.proceed()).thenThrow(new QueryTimeoutException("timeout"));
+        metricsAspect.timeRedisOperation(write);
+        assertThrows(QueryTimeoutException.class, () -> metricsAspect.timeRedisOperation(failing));
+        metricsAspect.measureEncoded(joinPoint("encodePlans", null), new byte[10]);
+        int afterFirstCalls = registrations.get();
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            metricsAspect.timeRedisOperation(write);
+            assertThrows(QueryTimeoutException.class, () -> metricsAspect.timeRedisOperation(failing));
+            metricsAspect.measureEncoded(joinPoint("encodePlans", null), new byte[10]);
+        }
+
+        // Assert
+        assertEquals(afterFirstCalls, registrations.get());
+        assertEquals(11, registry.get("broadband.redis.requests").tags("operation", "addBroadbandPlansCache").timer().count());
+        assertEquals(11, registry.get("broadband.redis.errors").tags("operation", "clearBroadbandCache").counter().count());
+        assertEquals(110, registry.get("broadband.redis.payload.size").summary().totalAmount());
+    }
+
+    @Test
+    void shouldCountEachRequestedPlanDetail() throws Throwable {
+        // Arrange
+        ProceedingJoinPoint lookup = joinPoint("getPlanDetails", Map.of("p1", new Object()), "Standard", List.of("p1", "p2", "p3"));
+
+        // Act
+        metricsAspect.timeRedisOperation(lookup);
+
+        // Assert
+        assertEquals(1, registry.get("broadband.redis.lookups").tags("result", "hit").counter().count());
+        assertEquals(2, registry.get("broadband.redis.lookups").tags("result", "miss").counter().count());
+    }
+
+    @Test
+    void shouldCountRedisErrors() throws Throwable {
+        // Arrange
+        ProceedingJoinPoint failing = joinPoint("addBroadbandPlansCache", null, "key", List.of());
+        when(failing.proceed()).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act
+        assertThrows(QueryTimeoutException.class, () -> metricsAspect.timeRedisOperation(failing));
+
+        // Assert
+        assertEquals(1, registry.get("broadband.redis.requests").tags("outcome", "error").timer().count());
+        assertEquals(1, registry.get("broadband.redis.errors")
+                .tags("operation", "addBroadbandPlansCache", "exception", "QueryTimeoutException").counter().count());
+        assertNull(registry.find("broadband.redis.lookups").counter());
+    }
+
+    @Test
+    void shouldMeasureCachePayloads() {
+        // Arrange
+        JoinPoint encode = joinPoint("encodePlans", null);
+        JoinPoint decode = joinPoint("decodePlans", null);
+
+        // Act
+        metricsAspect.measureEncoded(encode, new byte[300]);
+        metricsAspect.measureDecoded(decode, new byte[200]);
+
+        // Assert
+        assertEquals(300, registry.get("broadband.redis.payload.size").tags("operation", "encodePlans").summary().totalAmount());
+        assertEquals(200, registry.get("broadband.redis.payload.size").tags("operation", "decodePlans").summary().totalAmount());
+    }
+
+    @Test
+    void shouldTimeTokenValidationsByOutcome() throws Throwable {
+        // Arrange
+        ProceedingJoinPoint valid = joinPoint("isValid",
+                ResponseEntity.ok(new ResponseDTO(HttpStatus.OK, "valid", null, null, null)), "Bearer a");
+        ProceedingJoinPoint invalid = joinPoint("isValid",
+                ResponseEntity.ok(new ResponseDTO(HttpStatus.FORBIDDEN, "invalid", null, null, null)), "Bearer b");
+        ProceedingJoinPoint unreachable = joinPoint("isValid", null, "Bearer c");
+        when(unreachable.proceed()).thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        metricsAspect.timeTokenValidation(valid);
+        metricsAspect.timeTokenValidation(invalid);
+        assertThrows(IllegalStateException.class, () -> metricsAspect.timeTokenValidation(unreachable));
+
+        // Assert
+        assertEquals(1, registry.get("broadband.auth.requests").tags("outcome", "valid").timer().count());
+        assertEquals(1, registry.get("broadband.auth.requests").tags("outcome", "invalid").timer().count());
+        assertEquals(1, registry.get("broadband.auth.requests").tags("outcome", "error").timer().count());
+        assertEquals(1, registry.get("broadband.auth.errors").tags("exception", "IllegalStateException").counter().count());
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method, Object result, Object... args) {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(method);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        try {
+            when(joinPoint.proceed()).thenReturn(result);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return joinPoint;
+    }
+}
@@ -12,6 +12,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
@@ -40,12 +41,12 @@ class SubscriptionPlanControllerTest {
         // Set your expected response here
 
         // Mocking the service method
-        when(subscriptionFeignPlanService.getAllPlanByPlanIdList(requestBody.getPlanIdList(), requestBody.getPlanType()))
-                .thenReturn(expectedResponse);
+        when(subscriptionFeignPlanService.getAllPlanByPlanIdListAsync(requestBody.getPlanIdList(), requestBody.getPlanType()))
+                .thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
         // When
-        ResponseEntity<ErrorResponseDTO.SubscriptionResponseDTO> responseEntity = subscriptionPlanController.getAllPlanByPlanIdList(requestBody);
+        ResponseEntity<ErrorResponseDTO.SubscriptionResponseDTO> responseEntity = subscriptionPlanController.getAllPlanByPlanIdList(requestBody).join();
         // Then
         assertEquals(expectedResponse, responseEntity.getBody());
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.excitel.controller.user;
 import com.excitel.dto.*;
 import com.excitel.exception.custom.DuplicatePhoneNumberException;
 import com.excitel.model.BroadbandConnection;
+import com.excitel.model.BroadbandPlan;
 import com.excitel.service.user.BroadbandUserService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
@@ -51,6 +56,22 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void testGetBroadbandPlans_ReturnsNextToken() {
+        // Given
+        RequestDTO requestDTO = new RequestDTO();
+        List<BroadbandPlan> plans = List.of(new BroadbandPlan());
+        when(broadbandUserService.getBroadbandPlanWithQuery(requestDTO)).thenReturn(plans);
+        when(broadbandUserService.getNextPageToken(requestDTO, plans)).thenReturn("token");
+
+        // When
+        ResponseEntity<BroadbandPlanListDTO> responseEntity = userController.getBroadbandPlans(requestDTO);
+
+        // Then
+        assertEquals(plans, responseEntity.getBody().getData());
+        assertEquals("token", responseEntity.getBody().getNextToken());
+    }
+
     @Test
     void testCreateBroadbandConnection() {
         // Given
@@ -76,11 +97,11 @@ class UserControllerTest {
 
         BroadbandConnection broadbandConnection = new BroadbandConnection();
         broadbandConnection.setStatus("Active");
-        when(broadbandUserService.getConnectionDetailsForUser(anyString(), anyString()))
-                .thenReturn(broadbandConnection);
+        when(broadbandUserService.getConnectionDetailsForUserAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(broadbandConnection));
 
         // When
-        ResponseEntity<ConnectionResponseDTO> responseEntity = userController.getConnectionDetailsForUser(request);
+        ResponseEntity<ConnectionResponseDTO> responseEntity = userController.getConnectionDetailsForUser(request).join();
         // Then
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertNotNull(responseEntity.getBody());
@@ -92,13 +113,14 @@ class UserControllerTest {
         String mobileNumber = "1234567890";
         when(request.getAttribute("mobileNumber")).thenReturn(mobileNumber);
 
-        when(broadbandUserService.getConnectionDetailsForUser(anyString(), anyString()))
-                .thenThrow(new DuplicatePhoneNumberException("Duplicate phone number"));
+        when(broadbandUserService.getConnectionDetailsForUserAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new DuplicatePhoneNumberException("Duplicate phone number")));
 
         // When, Then
-        assertThrows(DuplicatePhoneNumberException.class, () -> {
-            userController.getConnectionDetailsForUser(request);
+        CompletionException exception = assertThrows(CompletionException.class, () -> {
+            userController.getConnectionDetailsForUser(request).join();
         });
+        assertInstanceOf(DuplicatePhoneNumberException.class, exception.getCause());
 
     }
 
@@ -111,14 +133,15 @@ class UserControllerTest {
         HttpServletRequest request = mock(HttpServletRequest.class);
         when(request.getAttribute("mobileNumber")).thenReturn(mobileNumber);
 
-        // When broadbandConnection is null, Optional.ofNullable will create an Optional.empty()
-        when(broadbandUserService.getConnectionDetailsForUser(anyString(), anyString())).thenReturn(null);
+        // When broadbandConnection is null, no response body is built
+        when(broadbandUserService.getConnectionDetailsForUserAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         // Act
-        ResponseEntity<ConnectionResponseDTO> response = userController.getConnectionDetailsForUser(request);
+        ResponseEntity<ConnectionResponseDTO> response = userController.getConnectionDetailsForUser(request).join();
 
         // Assert
         assertNull(response);
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.excitel.dynamodbqueryhelp;
+
+import com.excitel.exception.custom.InvalidPageTokenException;
+import com.excitel.model.BroadbandPlan;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTokenCodecTest {
+
+    private final PageTokenCodec pageTokenCodec = new PageTokenCodec();
+
+    @Test
+    void shouldRoundTripPlanKey() {
+        // Arrange
+        BroadbandPlan plan = BroadbandPlan.builder().planType("Broadband").planId("p-1").price("499").build();
+
+        // Act
+        String token = pageTokenCodec.encode(plan);
+        BroadbandPlan key = pageTokenCodec.decodeKey(token);
+
+        // Assert
+        assertEquals("QnJvYWRiYW5kCnAtMQ", token);
+        assertEquals("Broadband", key.getPlanType());
+        assertEquals("p-1", key.getPlanId());
+        assertNull(key.getPrice());
+    }
+
+    @Test
+    void shouldBuildExclusiveStartKeyFromToken() {
+        // Arrange
+        String token = pageTokenCodec.encode(BroadbandPlan.builder().planType("Broadband").planId("p-1").build());
+
+        // Act
+        Map<String, AttributeValue> startKey = pageTokenCodec.toExclusiveStartKey(token, "Broadband");
+
+        // Assert
+        assertEquals(2, startKey.size());
+        assertEquals("Broadband", startKey.get("PlanType").s());
+        assertEquals("p-1", startKey.get("PlanID").s());
+    }
+
+    @Test
+    void shouldReturnNullWithoutToken() {
+        // Act and Assert
+        assertNull(pageTokenCodec.decodeKey(null));
+        assertNull(pageTokenCodec.toExclusiveStartKey("", "Broadband"));
+    }
+
+    @Test
+    void shouldRejectMalformedToken() {
+        // Act and Assert
+        assertThrows(InvalidPageTokenException.class, () -> pageTokenCodec.decodeKey("not base64!"));
+        assertThrows(InvalidPageTokenException.class, () -> pageTokenCodec.decodeKey("QnJvYWRiYW5k"));
+    }
+
+    @Test
+    void shouldRejectTokenForAnotherOrMissingPlanType() {
+        // Arrange
+        String token = pageTokenCodec.encode(BroadbandPlan.builder().planType("Broadband").planId("p-1").build());
+
+        // Act and Assert
+        assertThrows(InvalidPageTokenException.class, () -> pageTokenCodec.toExclusiveStartKey(token, "Fiber"));
+        assertThrows(InvalidPageTokenException.class, () -> pageTokenCodec.toExclusiveStartKey(token, null));
+    }
+}
@@ -0,0 +1,22 @@
+package com.excitel.exception.custom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class InvalidPageTokenExceptionTest {
+
+    @Test
+    public void testConstructorWithMessage() {
+        // Test data
+        String message = "Test Message";
+
+        // Create exception
+        InvalidPageTokenException exception = new InvalidPageTokenException(message);
+
+        // Assertions
+        assertNotNull(exception);
+        assertEquals(message, exception.getMessage());
+    }
+}
@@ -3,6 +3,7 @@ package com.excitel.exception.global;
 import com.excitel.dto.ErrorResponseDTO;
 import com.excitel.exception.custom.DatabaseConnectionException;
 import com.excitel.exception.custom.DuplicatePhoneNumberException;
+import com.excitel.exception.custom.InvalidPageTokenException;
 import com.excitel.exception.custom.UserAccessDeniedException;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
@@ -69,8 +70,18 @@ class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.CONFLICT, responseBody.getStatus());
         assertEquals("New connection with duplicate phone number cannot be initiated: Duplicate phone number", responseBody.getErrorMessage());
     }
-}
-
 
+    @Test
+    void handleInvalidPageToken_ReturnsBadRequest() {
+        // Arrange
+        InvalidPageTokenException ex = new InvalidPageTokenException("Invalid page token: abc");
 
+        // Act
+        ResponseEntity<ErrorResponseDTO> responseEntity = globalExceptionHandler.handleInvalidPageToken(ex);
+        ErrorResponseDTO responseBody = responseEntity.getBody();
 
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, responseBody.getStatus());
+        assertEquals("Invalid page token: abc", responseBody.getErrorMessage());
+    }
+}
@@ -0,0 +1,227 @@
+package com.excitel.external;
+
+import com.excitel.config.ResilienceConfig;
+import com.excitel.dto.ResponseDTO;
+import com.excitel.exception.custom.AuthServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuardedTokenValidationTest {
+
+    private static final Duration CLIENT_TIMEOUT = Duration.ofMillis(200);
+
+    private HttpServer authServer;
+    private ExecutorService authServerThreads;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile long responseDelayMs;
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+
+    private GuardedTokenValidation guardedTokenValidation;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // a stand-in for AUTH-SERVICE that answers after responseDelayMs
+        authServerThreads = Executors.newCachedThreadPool();
+        authServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        authServer.setExecutor(authServerThreads);
+        authServer.createContext("/auth/check-token", exchange -> {
+            hits.incrementAndGet();
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        authServer.createContext("/warm-up", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        authServer.start();
+        warmUp();
+
+        guardedTokenValidation = guarded(this::callAuthServer, 10, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        authServer.stop(0);
+        authServerThreads.shutdownNow();
+    }
+
+    @Test
+    void shouldPassAnswerThroughWhileAuthServiceIsHealthy() {
+        // Given
+        responseDelayMs = 0;
+
+        // When
+        ResponseEntity<ResponseDTO> response = guardedTokenValidation.isValid("Bearer a");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getBody().getStatus());
+        assertEquals(1, hits.get());
+        assertEquals(CircuitBreaker.State.CLOSED, guardedTokenValidation.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void shouldFailFastOnceSlowAuthServiceOpensCircuit() {
+        // Given
+        responseDelayMs = 1000;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UncheckedIOException.class, () -> guardedTokenValidation.isValid("Bearer a"));
+        }
+        int hitsWhenOpened = hits.get();
+
+        // When
+        long start = System.nanoTime();
+        AuthServiceUnavailableException rejected = assertThrows(AuthServiceUnavailableException.class,
+                () -> guardedTokenValidation.isValid("Bearer a"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, guardedTokenValidation.getCircuitBreaker().getState());
+        assertInstanceOf(CallNotPermittedException.class, rejected.getCause());
+        assertTrue(elapsedMs < CLIENT_TIMEOUT.toMillis(), "rejected after " + elapsedMs + " ms");
+        assertEquals(hitsWhenOpened, hits.get());
+    }
+
+    @Test
+    void shouldNotOpenCircuitForRejectedTokens() {
+        // Given
+        GuardedTokenValidation rejecting = guarded(token -> {
+            throw clientError();
+        }, 10, 0);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            assertThrows(FeignException.FeignClientException.class, () -> rejecting.isValid("Bearer bad"));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, rejecting.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void shouldRejectCallsBeyondBulkheadLimit() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GuardedTokenValidation limited = guarded(token -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.ok(new ResponseDTO(HttpStatus.OK, "valid", null, null, null));
+        }, 1, 0);
+        CompletableFuture<ResponseEntity<ResponseDTO>> inFlight = CompletableFuture.supplyAsync(() -> limited.isValid("Bearer a"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        AuthServiceUnavailableException rejected = assertThrows(AuthServiceUnavailableException.class,
+                () -> limited.isValid("Bearer b"));
+        release.countDown();
+
+        // Then
+        assertInstanceOf(BulkheadFullException.class, rejected.getCause());
+        assertEquals(HttpStatus.OK, inFlight.get(5, TimeUnit.SECONDS).getBody().getStatus());
+        assertEquals(CircuitBreaker.State.CLOSED, limited.getCircuitBreaker().getState());
+    }
+
+    private ResponseEntity<ResponseDTO> callAuthServer(String token) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + authServer.getAddress().getPort() + "/auth/check-token"))
+                .header("Authorization", token)
+                .timeout(CLIENT_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return ResponseEntity.ok(new ResponseDTO(HttpStatus.OK, "valid", null, null, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void warmUp() throws IOException {
+        // the client's first exchange pays for class loading, which would eat the short request timeout
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + authServer.getAddress().getPort() + "/warm-up"))
+                .timeout(CONNECT_TIMEOUT)
+                .GET()
+                .build();
+        try {
+            httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static GuardedTokenValidation guarded(TokenValidation tokenValidation, int maxConcurrentCalls, long maxWaitMs) {
+        ResilienceConfig config = new ResilienceConfig();
+        ReflectionTestUtils.setField(config, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(config, "slowCallMs", 1000L);
+        ReflectionTestUtils.setField(config, "windowSize", 4);
+        ReflectionTestUtils.setField(config, "minimumCalls", 4);
+        ReflectionTestUtils.setField(config, "openMs", 60_000L);
+        ReflectionTestUtils.setField(config, "maxConcurrentCalls", maxConcurrentCalls);
+        ReflectionTestUtils.setField(config, "maxWaitMs", maxWaitMs);
+        GuardedTokenValidation guarded = new GuardedTokenValidation();
+        ReflectionTestUtils.setField(guarded, "tokenValidation", tokenValidation);
+        guarded.configure(config.circuitBreakerRegistry(), config.bulkheadRegistry());
+        return guarded;
+    }
+
+    private static FeignException clientError() {
+        Request request = Request.create(Request.HttpMethod.GET, "/auth/check-token", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("TokenValidation#isValid(String)", feign.Response.builder()
+                .status(401)
+                .reason("status 401")
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.excitel.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("com.excitel.serviceimpl.user.BroadbandUserServiceImpl");
+    private final BlockingAppender sink = new BlockingAppender();
+    private final MeteredAsyncAppender asyncAppender = new MeteredAsyncAppender();
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        sink.setContext(context);
+        sink.start();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("ASYNC");
+        asyncAppender.setQueueSize(4);
+        asyncAppender.setDiscardingThreshold(2);
+        asyncAppender.addAppender(sink);
+        asyncAppender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(asyncAppender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.release.countDown();
+        context.stop();
+    }
+
+    @Test
+    void shouldDropInfoButKeepWarnWhenQueueIsNearlyFull() throws Exception {
+        // Arrange
+        asyncAppender.doAppend(event(Level.INFO, "taken by the worker"));
+        assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+
+        // Act
+        asyncAppender.doAppend(event(Level.INFO, "queued 1"));
+        asyncAppender.doAppend(event(Level.INFO, "queued 2"));
+        asyncAppender.doAppend(event(Level.DEBUG, "queued 3"));
+        asyncAppender.doAppend(event(Level.INFO, "dropped"));
+        asyncAppender.doAppend(event(Level.WARN, "kept"));
+        int depth = asyncAppender.getQueueDepth();
+        sink.release.countDown();
+        asyncAppender.stop();
+
+        // Assert
+        assertEquals(4, depth);
+        assertEquals(1, asyncAppender.getDroppedCount());
+        List<String> written = sink.events.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(List.of("taken by the worker", "queued 1", "queued 2", "queued 3", "kept"), written);
+    }
+
+    @Test
+    void shouldExposeQueueAndDropsAsMetrics() {
+        // Arrange
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        new AsyncAppenderMetrics().bindTo(registry, context);
+
+        // Assert
+        assertEquals(0, registry.get("logback.async.queue.depth").tag("appender", "ASYNC").gauge().value());
+        assertEquals(4, registry.get("logback.async.queue.capacity").tag("appender", "ASYNC").gauge().value());
+        assertEquals(0, registry.get("logback.async.dropped").tag("appender", "ASYNC").functionCounter().count());
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+    }
+}
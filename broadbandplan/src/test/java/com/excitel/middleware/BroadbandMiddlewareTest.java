@@ -1,6 +1,8 @@
 package com.excitel.middleware;
 
 import com.excitel.dto.ResponseDTO;
+import com.excitel.exception.custom.AuthServiceUnavailableException;
+import com.excitel.external.GuardedTokenValidation;
 import com.excitel.external.TokenValidation;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -44,6 +47,12 @@ public class BroadbandMiddlewareTest {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
+        TokenValidationCache tokenValidationCache = new TokenValidationCache();
+        GuardedTokenValidation guardedTokenValidation = new GuardedTokenValidation();
+        ReflectionTestUtils.setField(guardedTokenValidation, "tokenValidation", tokenValidationService);
+        ReflectionTestUtils.setField(tokenValidationCache, "tokenValidationService", guardedTokenValidation);
+        ReflectionTestUtils.setField(broadbandMiddleware, "tokenValidationCache", tokenValidationCache);
+        ReflectionTestUtils.setField(broadbandMiddleware, "jwtVerifier", new JwtVerifier());
     }
 
     @Test
@@ -196,5 +205,62 @@ public class BroadbandMiddlewareTest {
         assertEquals(403, response.getStatus());
     }
 
+    @Test
+    public void shouldValidateRepeatedTokenOnlyOnce() throws Exception {
+        when(request.getHeader("Authorization")).thenReturn("validToken");
+        when(tokenValidationService.isValid("validToken")).thenReturn(ResponseEntity.ok(new ResponseDTO(HttpStatus.OK, "message", "9876543210", "email", "role")));
+
+        broadbandMiddleware.doFilterInternal(request, response, filterChain);
+        broadbandMiddleware.doFilterInternal(request, response, filterChain);
+
+        verify(tokenValidationService, times(1)).isValid("validToken");
+        verify(filterChain, times(2)).doFilter(request, response);
+        verify(request, times(2)).setAttribute("mobileNumber", "9876543210");
+    }
+
+    @Test
+    public void shouldNotCallAuthServiceForVerifiedJwt() throws Exception {
+        JwtVerifier jwtVerifier = mock(JwtVerifier.class);
+        ReflectionTestUtils.setField(broadbandMiddleware, "jwtVerifier", jwtVerifier);
+        when(request.getHeader("Authorization")).thenReturn("Bearer jwt");
+        when(jwtVerifier.verify("Bearer jwt")).thenReturn(new JwtVerifier.Verification(JwtVerifier.Outcome.VERIFIED,
+                new ResponseDTO(HttpStatus.OK, null, "9876543210", "email", "role")));
+
+        broadbandMiddleware.doFilterInternal(request, response, filterChain);
+
+        verify(request).setAttribute("mobileNumber", "9876543210");
+        verify(filterChain, times(1)).doFilter(request, response);
+        verifyNoInteractions(tokenValidationService);
+    }
 
+    @Test
+    public void shouldNotAskAuthServiceAboutRejectedJwt() throws Exception {
+        JwtVerifier jwtVerifier = mock(JwtVerifier.class);
+        ReflectionTestUtils.setField(broadbandMiddleware, "jwtVerifier", jwtVerifier);
+        when(request.getHeader("Authorization")).thenReturn("Bearer forged");
+        when(jwtVerifier.verify("Bearer forged")).thenReturn(new JwtVerifier.Verification(JwtVerifier.Outcome.REJECTED, null));
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+
+        broadbandMiddleware.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_FORBIDDEN);
+        verify(filterChain, times(0)).doFilter(any(), any());
+        verifyNoInteractions(tokenValidationService);
+    }
+
+    @Test
+    public void shouldAnswerServiceUnavailableWhenAuthServiceIsGuarded() throws Exception {
+        TokenValidationCache tokenValidationCache = mock(TokenValidationCache.class);
+        ReflectionTestUtils.setField(broadbandMiddleware, "tokenValidationCache", tokenValidationCache);
+        when(request.getHeader("Authorization")).thenReturn("Bearer opaque");
+        when(tokenValidationCache.validate("Bearer opaque")).thenThrow(new AuthServiceUnavailableException("open", null));
+        StringWriter stringWriter = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+
+        broadbandMiddleware.doFilterInternal(request, response, filterChain);
+
+        verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertEquals("Authorization service unavailable", stringWriter.toString());
+        verify(filterChain, times(0)).doFilter(any(), any());
+    }
 }
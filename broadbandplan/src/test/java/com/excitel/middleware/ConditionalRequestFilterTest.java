@@ -0,0 +1,259 @@
+package com.excitel.middleware;
+
+import com.excitel.catalog.CatalogVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class ConditionalRequestFilterTest {
+
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @InjectMocks
+    private ConditionalRequestFilter conditionalRequestFilter;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    private final FilterChain controller = (request, response) -> {
+        calls.incrementAndGet();
+        receivedBody.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(catalogVersion.current()).thenReturn(new CatalogVersion.Stamp(7, LAST_MODIFIED, true));
+    }
+
+    @Test
+    void shouldSetValidatorsOnListing() throws Exception {
+        // Act
+        MockHttpServletResponse response = execute(listingRequest());
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertEquals("W/\"7\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(LAST_MODIFIED, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = listingRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"6\", W/\"7\"");
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void shouldAnswerInFullForOutdatedEtagEvenIfDateMatches() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = listingRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"6\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED);
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedSinceLastModified() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = listingRequest();
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED + 5000);
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void shouldCoverRequestBodyInSubscriptionEtag() throws Exception {
+        // Arrange
+        String first = execute(subscriptionRequest("{\"planIdList\":[\"a\"]}")).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest sameBody = subscriptionRequest("{\"planIdList\":[\"a\"]}");
+        sameBody.addHeader(HttpHeaders.IF_NONE_MATCH, first);
+        MockHttpServletRequest otherBody = subscriptionRequest("{\"planIdList\":[\"b\"]}");
+        otherBody.addHeader(HttpHeaders.IF_NONE_MATCH, first);
+
+        // Act
+        MockHttpServletResponse unchanged = execute(sameBody);
+        MockHttpServletResponse changed = execute(otherBody);
+
+        // Assert
+        assertTrue(first.startsWith("W/\"7-"));
+        assertEquals(304, unchanged.getStatus());
+        assertEquals(200, changed.getStatus());
+        assertEquals("{\"planIdList\":[\"b\"]}", receivedBody.get());
+    }
+
+    @Test
+    void shouldNotValidateSubscriptionByDate() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = subscriptionRequest("{}");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED + 5000);
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldRejectBodyOverLimitWithoutReadingIt() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(conditionalRequestFilter, "maxBodyBytes", 8);
+        MockHttpServletRequest request = subscriptionRequest("{\"planIdList\":[\"a\"]}");
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(413, response.getStatus());
+        assertEquals(0, calls.get());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void shouldRejectBodyOverLimitWithoutContentLength() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(conditionalRequestFilter, "maxBodyBytes", 8);
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/v2/broadband/subscription-plan-detail") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setServletPath("/api/v2/broadband/subscription-plan-detail");
+        chunked.setContent("{\"planIdList\":[\"a\"]}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        MockHttpServletResponse response = execute(chunked);
+
+        // Assert
+        assertEquals(413, response.getStatus());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void shouldHandBufferedBodyToReadListener() throws Exception {
+        // Arrange
+        byte[] body = "{\"planIdList\":[\"a\"]}".getBytes(StandardCharsets.UTF_8);
+        ServletInputStream in = new ConditionalRequestFilter.BufferedBodyRequest(subscriptionRequest("{}"), body)
+                .getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicInteger allDataRead = new AtomicInteger();
+
+        // Act
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        // Assert
+        assertArrayEquals(body, read.toByteArray());
+        assertEquals(1, allDataRead.get());
+    }
+
+    @Test
+    void shouldPassThroughWithoutValidatorsWhileCatchingUp() throws Exception {
+        // Arrange
+        when(catalogVersion.current()).thenReturn(null);
+        MockHttpServletRequest request = listingRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"7\"");
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldNotFilterOtherEndpoints() throws Exception {
+        // Arrange
+        MockHttpServletRequest health = new MockHttpServletRequest("GET", "/api/v2/broadband/health");
+        health.setServletPath("/api/v2/broadband/health");
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/v2/broadband");
+        post.setServletPath("/api/v2/broadband");
+
+        // Act and Assert
+        assertTrue(conditionalRequestFilter.shouldNotFilter(health));
+        assertTrue(conditionalRequestFilter.shouldNotFilter(post));
+        assertFalse(conditionalRequestFilter.shouldNotFilter(listingRequest()));
+        assertFalse(conditionalRequestFilter.shouldNotFilter(subscriptionRequest("{}")));
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        conditionalRequestFilter.doFilter(request, response, controller);
+        return response;
+    }
+
+    private static MockHttpServletRequest listingRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/broadband");
+        request.setServletPath("/api/v2/broadband");
+        return request;
+    }
+
+    private static MockHttpServletRequest subscriptionRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v2/broadband/subscription-plan-detail");
+        request.setServletPath("/api/v2/broadband/subscription-plan-detail");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,210 @@
+package com.excitel.middleware;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static RSAKey currentKey;
+    private static RSAKey rotatedKey;
+
+    @TempDir
+    Path keyDir;
+
+    private Path keyFile;
+    private JwtVerifier jwtVerifier;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        currentKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        rotatedKey = new RSAKeyGenerator(2048).keyID("key-2").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // a local key file stands in for the auth service's JWKS endpoint
+        keyFile = keyDir.resolve("jwks.json");
+        writeKeys(currentKey);
+        jwtVerifier = new JwtVerifier();
+        jwtVerifier.setEnabled(true);
+        jwtVerifier.setJwksLocation(keyFile.toUri().toString());
+        ReflectionTestUtils.setField(jwtVerifier, "planRefreshExecutor", (Executor) Runnable::run);
+        jwtVerifier.refresh();
+    }
+
+    @Test
+    void shouldVerifyTokenAndReadClaims() throws JOSEException {
+        // Arrange
+        String token = "Bearer " + sign(currentKey, validClaims().build());
+
+        // Act
+        JwtVerifier.Verification verification = jwtVerifier.verify(token);
+
+        // Assert
+        assertEquals(JwtVerifier.Outcome.VERIFIED, verification.outcome());
+        assertEquals("9876543210", verification.user().getMobileNumber());
+        assertEquals("USER", verification.user().getRole());
+        assertEquals("user@excitel.com", verification.user().getEmail());
+    }
+
+    @Test
+    void shouldRejectExpiredToken() throws JOSEException {
+        // Arrange
+        String token = sign(currentKey, validClaims().expirationTime(new Date(System.currentTimeMillis() - 600_000)).build());
+
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.REJECTED, jwtVerifier.verify(token).outcome());
+    }
+
+    @Test
+    void shouldRejectTokenWithoutExpiry() throws JOSEException {
+        // Arrange
+        String token = sign(currentKey, validClaims().expirationTime(null).build());
+
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.REJECTED, jwtVerifier.verify(token).outcome());
+    }
+
+    @Test
+    void shouldRejectTamperedToken() throws JOSEException {
+        // Arrange
+        String[] parts = sign(currentKey, validClaims().build()).split("\\.");
+        String forgedClaims = sign(currentKey, validClaims().claim("role", "ADMIN").build()).split("\\.")[1];
+        String token = parts[0] + "." + forgedClaims + "." + parts[2];
+
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.REJECTED, jwtVerifier.verify(token).outcome());
+    }
+
+    @Test
+    void shouldLeaveOpaqueTokenToAuthService() {
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.UNVERIFIABLE, jwtVerifier.verify("Bearer 2f9c0a71e4").outcome());
+    }
+
+    @Test
+    void shouldLeaveEveryTokenToAuthServiceWhileKeysAreMissing() throws JOSEException {
+        // Arrange
+        JwtVerifier withoutKeys = new JwtVerifier();
+        withoutKeys.setEnabled(true);
+        withoutKeys.setJwksLocation(keyDir.resolve("missing.json").toUri().toString());
+        withoutKeys.refresh();
+
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.UNVERIFIABLE, withoutKeys.verify(sign(currentKey, validClaims().build())).outcome());
+    }
+
+    @Test
+    void shouldPickUpRotatedKeyOnUnknownKeyId() throws Exception {
+        // Arrange
+        writeKeys(currentKey, rotatedKey);
+        ReflectionTestUtils.setField(jwtVerifier, "minRefreshIntervalMs", 0L);
+        String token = sign(rotatedKey, validClaims().build());
+
+        // Act
+        JwtVerifier.Verification verification = jwtVerifier.verify(token);
+
+        // Assert
+        assertEquals(JwtVerifier.Outcome.VERIFIED, verification.outcome());
+    }
+
+    @Test
+    void shouldReloadKeysInBackgroundOnUnknownKeyId() throws Exception {
+        // Arrange
+        Queue<Runnable> reloads = new ArrayDeque<>();
+        ReflectionTestUtils.setField(jwtVerifier, "planRefreshExecutor", (Executor) reloads::add);
+        writeKeys(currentKey, rotatedKey);
+        ReflectionTestUtils.setField(jwtVerifier, "minRefreshIntervalMs", 0L);
+        String token = sign(rotatedKey, validClaims().build());
+
+        // Act
+        JwtVerifier.Verification beforeReload = jwtVerifier.verify(token);
+        reloads.remove().run();
+        JwtVerifier.Verification afterReload = jwtVerifier.verify(token);
+
+        // Assert
+        assertEquals(JwtVerifier.Outcome.UNVERIFIABLE, beforeReload.outcome());
+        assertEquals(JwtVerifier.Outcome.VERIFIED, afterReload.outcome());
+    }
+
+    @Test
+    void shouldAcceptTokenForConfiguredAudience() throws JOSEException {
+        // Arrange
+        ReflectionTestUtils.setField(jwtVerifier, "audience", "broadband-plan");
+        jwtVerifier.refresh();
+        String token = sign(currentKey, validClaims().audience(List.of("broadband-plan", "prepaid-plan")).build());
+
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.VERIFIED, jwtVerifier.verify(token).outcome());
+    }
+
+    @Test
+    void shouldRejectTokenForOtherOrMissingAudience() throws JOSEException {
+        // Arrange
+        ReflectionTestUtils.setField(jwtVerifier, "audience", "broadband-plan");
+        jwtVerifier.refresh();
+        String otherAudience = sign(currentKey, validClaims().audience("prepaid-plan").build());
+        String noAudience = sign(currentKey, validClaims().build());
+
+        // Act and Assert
+        assertEquals(JwtVerifier.Outcome.REJECTED, jwtVerifier.verify(otherAudience).outcome());
+        assertEquals(JwtVerifier.Outcome.REJECTED, jwtVerifier.verify(noAudience).outcome());
+    }
+
+    @Test
+    void shouldNotReloadKeysOnEveryUnknownKeyId() throws Exception {
+        // Arrange
+        writeKeys(currentKey, rotatedKey);
+        String token = sign(rotatedKey, validClaims().build());
+
+        // Act
+        JwtVerifier.Verification verification = jwtVerifier.verify(token);
+
+        // Assert
+        assertEquals(JwtVerifier.Outcome.UNVERIFIABLE, verification.outcome());
+    }
+
+    private void writeKeys(RSAKey... keys) throws IOException {
+        List<JWK> publicKeys = Arrays.stream(keys).<JWK>map(RSAKey::toPublicJWK).toList();
+        Files.writeString(keyFile, new JWKSet(publicKeys).toString());
+    }
+
+    private static JWTClaimsSet.Builder validClaims() {
+        return new JWTClaimsSet.Builder()
+                .subject("user@excitel.com")
+                .claim("mobileNumber", "9876543210")
+                .claim("role", "USER")
+                .expirationTime(new Date(System.currentTimeMillis() + 600_000));
+    }
+
+    private static String sign(RSAKey key, JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
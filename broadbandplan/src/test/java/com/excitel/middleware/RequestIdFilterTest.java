@@ -0,0 +1,50 @@
+package com.excitel.middleware;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter requestIdFilter = new RequestIdFilter();
+    private final AtomicReference<String> loggedId = new AtomicReference<>();
+    private final FilterChain controller = (request, response) -> loggedId.set(MDC.get(RequestIdFilter.REQUEST_ID));
+
+    @Test
+    void shouldCarryCallerRequestId() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/broadband");
+        request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, "mobile-42.a");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        requestIdFilter.doFilter(request, response, controller);
+
+        // Assert
+        assertEquals("mobile-42.a", loggedId.get());
+        assertEquals("mobile-42.a", response.getHeader(RequestIdFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestIdFilter.REQUEST_ID));
+    }
+
+    @Test
+    void shouldGenerateIdForMissingOrUnsafeHeader() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/broadband");
+        request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, "forged\n{\"level\":\"ERROR\"}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        requestIdFilter.doFilter(request, response, controller);
+
+        // Assert
+        assertEquals(36, loggedId.get().length());
+        assertEquals(loggedId.get(), response.getHeader(RequestIdFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestIdFilter.REQUEST_ID));
+    }
+}
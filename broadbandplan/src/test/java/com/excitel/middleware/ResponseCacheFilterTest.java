@@ -0,0 +1,171 @@
+package com.excitel.middleware;
+
+import com.excitel.redishelper.BroadbandRedis;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"status\":\"OK\",\"data\":[" + "{\"planId\":\"p\"},".repeat(200) + "{}]}";
+
+    @InjectMocks
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Mock
+    private BroadbandRedis broadbandRedis;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private final FilterChain listing = (request, response) -> {
+        renders.incrementAndGet();
+        response.setContentType("application/json");
+        response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        responseCacheFilter.setEnabled(true);
+    }
+
+    @Test
+    void shouldRenderOnceAndServeHitsFromCache() throws Exception {
+        // Act
+        MockHttpServletResponse first = execute(listingRequest());
+        MockHttpServletResponse second = execute(listingRequest());
+
+        // Assert
+        assertEquals(1, renders.get());
+        assertEquals(200, second.getStatus());
+        assertEquals(BODY, second.getContentAsString());
+        assertEquals(first.getHeader(HttpHeaders.ETAG), second.getHeader(HttpHeaders.ETAG));
+        assertTrue(second.getHeader(HttpHeaders.ETAG).startsWith("\""));
+    }
+
+    @Test
+    void shouldShareEntryAcrossParameterOrder() throws Exception {
+        // Arrange
+        MockHttpServletRequest first = listingRequest();
+        first.addParameter("category", "Home");
+        first.addParameter("active", "True");
+        MockHttpServletRequest second = listingRequest();
+        second.addParameter("active", "True");
+        second.addParameter("category", "Home");
+
+        // Act
+        execute(first);
+        execute(second);
+
+        // Assert
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void shouldRenderAgainAfterGenerationChange() throws Exception {
+        // Arrange
+        when(broadbandRedis.currentGeneration()).thenReturn(1L);
+        execute(listingRequest());
+        when(broadbandRedis.currentGeneration()).thenReturn(2L);
+
+        // Act
+        execute(listingRequest());
+
+        // Assert
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void shouldServePreGzippedBodyWhenAccepted() throws Exception {
+        // Arrange
+        execute(listingRequest());
+        MockHttpServletRequest request = listingRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).endsWith("-gzip\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        // Arrange
+        String etag = execute(listingRequest()).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = listingRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        // Act
+        MockHttpServletResponse response = execute(request);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() throws Exception {
+        // Arrange
+        FilterChain failing = (request, response) -> {
+            renders.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(500);
+            response.setContentType("application/json");
+            response.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        // Act
+        responseCacheFilter.doFilter(listingRequest(), new MockHttpServletResponse(), failing);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseCacheFilter.doFilter(listingRequest(), response, failing);
+
+        // Assert
+        assertEquals(2, renders.get());
+        assertEquals(500, response.getStatus());
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    void shouldNotFilterOtherPathsOrWhenDisabled() throws Exception {
+        // Arrange
+        MockHttpServletRequest health = new MockHttpServletRequest("GET", "/api/v2/broadband/health");
+        health.setServletPath("/api/v2/broadband/health");
+
+        // Act and Assert
+        assertTrue(responseCacheFilter.shouldNotFilter(health));
+        assertFalse(responseCacheFilter.shouldNotFilter(listingRequest()));
+        responseCacheFilter.setEnabled(false);
+        assertTrue(responseCacheFilter.shouldNotFilter(listingRequest()));
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseCacheFilter.doFilter(request, response, listing);
+        return response;
+    }
+
+    private static MockHttpServletRequest listingRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/broadband");
+        request.setServletPath("/api/v2/broadband");
+        return request;
+    }
+}
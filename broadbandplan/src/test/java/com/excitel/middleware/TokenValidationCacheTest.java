@@ -0,0 +1,203 @@
+package com.excitel.middleware;
+
+import com.excitel.dto.ResponseDTO;
+import com.excitel.external.GuardedTokenValidation;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenValidationCacheTest {
+
+    @InjectMocks
+    private TokenValidationCache tokenValidationCache;
+
+    @Mock
+    private GuardedTokenValidation tokenValidationService;
+
+    private final ResponseDTO user = new ResponseDTO(HttpStatus.OK, "valid", "9876543210", "user@excitel.com", "USER");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldCallAuthServiceOncePerToken() {
+        // Arrange
+        when(tokenValidationService.isValid("Bearer a")).thenReturn(ResponseEntity.ok(user));
+
+        // Act
+        ResponseDTO first = tokenValidationCache.validate("Bearer a");
+        ResponseDTO second = tokenValidationCache.validate("Bearer a");
+
+        // Assert
+        assertSame(user, first);
+        assertSame(user, second);
+        verify(tokenValidationService, times(1)).isValid("Bearer a");
+    }
+
+    @Test
+    void shouldRememberRejectedToken() {
+        // Arrange
+        when(tokenValidationService.isValid("Bearer bad"))
+                .thenReturn(ResponseEntity.ok(new ResponseDTO(HttpStatus.FORBIDDEN, "invalid", null, null, null)));
+
+        // Act
+        ResponseDTO first = tokenValidationCache.validate("Bearer bad");
+        ResponseDTO second = tokenValidationCache.validate("Bearer bad");
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        verify(tokenValidationService, times(1)).isValid("Bearer bad");
+    }
+
+    @Test
+    void shouldTreatUnauthorizedAnswerAsRejectedToken() {
+        // Arrange
+        when(tokenValidationService.isValid("Bearer expired")).thenThrow(feignException(401));
+
+        // Act
+        ResponseDTO first = tokenValidationCache.validate("Bearer expired");
+        ResponseDTO second = tokenValidationCache.validate("Bearer expired");
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        verify(tokenValidationService, times(1)).isValid("Bearer expired");
+    }
+
+    @Test
+    void shouldNotCacheAuthServiceFailure() {
+        // Arrange
+        when(tokenValidationService.isValid("Bearer a")).thenThrow(feignException(503)).thenReturn(ResponseEntity.ok(user));
+
+        // Act and Assert
+        assertThrows(FeignException.class, () -> tokenValidationCache.validate("Bearer a"));
+        assertSame(user, tokenValidationCache.validate("Bearer a"));
+    }
+
+    @Test
+    void shouldValidateAgainAfterInvalidation() {
+        // Arrange
+        when(tokenValidationService.isValid(anyString())).thenReturn(ResponseEntity.ok(user));
+        tokenValidationCache.validate("Bearer a");
+        tokenValidationCache.validate("Bearer b");
+
+        // Act
+        tokenValidationCache.invalidate("Bearer a");
+        tokenValidationCache.validate("Bearer a");
+        tokenValidationCache.validate("Bearer b");
+        tokenValidationCache.invalidateAll();
+        tokenValidationCache.validate("Bearer b");
+
+        // Assert
+        verify(tokenValidationService, times(2)).isValid("Bearer a");
+        verify(tokenValidationService, times(2)).isValid("Bearer b");
+    }
+
+    @Test
+    void shouldCallAuthServiceEveryTimeWhenDisabled() {
+        // Arrange
+        tokenValidationCache.setEnabled(false);
+        when(tokenValidationService.isValid("Bearer a")).thenReturn(ResponseEntity.ok(user));
+
+        // Act
+        tokenValidationCache.validate("Bearer a");
+        tokenValidationCache.validate("Bearer a");
+
+        // Assert
+        verify(tokenValidationService, times(2)).isValid("Bearer a");
+    }
+
+    @Test
+    void shouldServeParallelRequestsWithOneAuthCall() throws Exception {
+        // Arrange
+        int callers = 10;
+        tokenValidationCache.setEnabled(false); // without the cache, sharing can only come from coalescing
+        CountDownLatch allWaiting = new CountDownLatch(callers);
+        when(tokenValidationService.isValid("Bearer login")).thenAnswer(invocation -> {
+            allWaiting.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return ResponseEntity.ok(user);
+        });
+
+        // Act
+        List<Future<ResponseDTO>> results = runConcurrently(callers, allWaiting, "Bearer login");
+
+        // Assert
+        for (Future<ResponseDTO> result : results) {
+            assertSame(user, result.get(10, TimeUnit.SECONDS));
+        }
+        verify(tokenValidationService, times(1)).isValid("Bearer login");
+    }
+
+    @Test
+    void shouldShareAuthServiceFailureWithParallelRequests() throws Exception {
+        // Arrange
+        int callers = 10;
+        CountDownLatch allWaiting = new CountDownLatch(callers);
+        when(tokenValidationService.isValid("Bearer login")).thenAnswer(invocation -> {
+            allWaiting.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            throw feignException(503);
+        }).thenReturn(ResponseEntity.ok(user));
+
+        // Act
+        List<Future<ResponseDTO>> results = runConcurrently(callers, allWaiting, "Bearer login");
+
+        // Assert
+        for (Future<ResponseDTO> result : results) {
+            Exception failure = assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(FeignException.class, failure.getCause());
+        }
+        assertSame(user, tokenValidationCache.validate("Bearer login"));
+        verify(tokenValidationService, times(2)).isValid("Bearer login");
+    }
+
+    private List<Future<ResponseDTO>> runConcurrently(int callers, CountDownLatch allWaiting, String token) {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<ResponseDTO>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    allWaiting.countDown();
+                    return tokenValidationCache.validate(token);
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+
+    private static FeignException feignException(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/auth/check-token", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("TokenValidation#isValid(String)", feign.Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+}
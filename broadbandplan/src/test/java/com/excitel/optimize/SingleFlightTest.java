@@ -0,0 +1,81 @@
+package com.excitel.optimize;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        // Arrange
+        int callers = 500;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return singleFlight.execute("key", () -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return 42;
+                    });
+                }));
+            }
+            start.countDown();
+            // hold the leader until every caller has either joined the flight or is about to
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void shouldLoadDifferentKeysIndependently() {
+        // Act
+        int first = singleFlight.execute("a", () -> 1);
+        int second = singleFlight.execute("b", () -> 2);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(2, second);
+    }
+
+    @Test
+    void shouldPropagateLoaderFailureAndAllowRetry() {
+        // Act and Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("key", () -> { throw new IllegalStateException("boom"); }));
+        assertEquals("boom", exception.getMessage());
+        assertEquals(7, singleFlight.execute("key", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
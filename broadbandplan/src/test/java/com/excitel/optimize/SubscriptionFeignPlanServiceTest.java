@@ -8,13 +8,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.excitel.exception.custom.DatabaseConnectionException;
+import com.excitel.redishelper.BroadbandRedis;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -25,6 +41,9 @@ class SubscriptionFeignPlanServiceTest {
     @Mock
     private DynamoDbClient dynamoDbClient;
 
+    @Mock
+    private BroadbandRedis broadbandRedis;
+
     @InjectMocks
     private SubscriptionFeignPlanService subscriptionFeignPlanService;
 
@@ -35,6 +54,7 @@ class SubscriptionFeignPlanServiceTest {
         Field field = SubscriptionFeignPlanService.class.getDeclaredField("dynamoDbClient");
         field.setAccessible(true);
         field.set(subscriptionFeignPlanService, dynamoDbClient);
+        ReflectionTestUtils.setField(subscriptionFeignPlanService, "broadbandRedis", broadbandRedis);
     }
 
     @Test
@@ -312,6 +332,297 @@ class SubscriptionFeignPlanServiceTest {
         assertNull(service.getBooleanOrNull(null, "key"));
     }
 
+    @Test
+    void shouldReadLargeIdListInChunksAndRetryUnprocessedKeys() {
+        // Arrange
+        List<String> planIds = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            planIds.add("plan" + i);
+        }
+        planIds.add("plan7"); // duplicates must not reach DynamoDB
+        PartialBatchDynamoDb standIn = new PartialBatchDynamoDb(planIds, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        SubscriptionFeignPlanService service = serviceWith(standIn, executor);
+
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO;
+        try {
+            responseDTO = service.getAllPlanByPlanIdList(planIds, "Broadband");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(250, responseDTO.getMobilePlans().size());
+        assertTrue(standIn.maxKeysPerCall.get() <= SubscriptionFeignPlanService.MAX_BATCH_KEYS);
+        assertTrue(standIn.calls.get() > 3, "unprocessed keys should have been retried");
+        assertEquals("plan249", responseDTO.getMobilePlans().get("plan249").getPlanId());
+    }
+
+    @Test
+    void shouldFailInsteadOfDroppingPlansWhenRetriesRunOut() {
+        // Arrange
+        PartialBatchDynamoDb standIn = new PartialBatchDynamoDb(List.of("plan1", "plan2"), Integer.MAX_VALUE);
+        SubscriptionFeignPlanService service = serviceWith(standIn, Runnable::run);
+        ReflectionTestUtils.setField(service, "maxRetries", 3);
+
+        // Act and Assert
+        assertThrows(DatabaseConnectionException.class,
+                () -> service.getAllPlanByPlanIdList(List.of("plan1", "plan2"), "Broadband"));
+        assertEquals(4, standIn.calls.get());
+    }
+
+    @Test
+    void shouldKeepAtMostConfiguredChunksInFlight() {
+        // Arrange
+        List<String> planIds = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            planIds.add("plan" + i);
+        }
+        PartialBatchDynamoDb standIn = new PartialBatchDynamoDb(planIds, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        SubscriptionFeignPlanService service = serviceWith(standIn, executor);
+        ReflectionTestUtils.setField(service, "maxChunksInFlight", 2);
 
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO;
+        try {
+            responseDTO = service.getAllPlanByPlanIdList(planIds, "Broadband");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1000, responseDTO.getMobilePlans().size());
+        assertEquals(10, standIn.calls.get());
+        assertTrue(standIn.maxInFlight.get() <= 2, standIn.maxInFlight.get() + " chunks were read at once");
+    }
+
+    @Test
+    void shouldFailWithDatabaseConnectionExceptionWhenExecutorIsSaturated() {
+        // Arrange
+        PartialBatchDynamoDb standIn = new PartialBatchDynamoDb(List.of("plan1"), 0);
+        SubscriptionFeignPlanService service = serviceWith(standIn, task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+
+        // Act and Assert
+        assertThrows(DatabaseConnectionException.class,
+                () -> service.getAllPlanByPlanIdList(List.of("plan1"), "Broadband"));
+        assertEquals(0, standIn.calls.get());
+    }
+
+    @Test
+    void shouldNotCallDynamoDbForEmptyIdList() {
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO = subscriptionFeignPlanService.getAllPlanByPlanIdList(List.of(), "Broadband");
+
+        // Assert
+        assertTrue(responseDTO.getMobilePlans().isEmpty());
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldOnlyReadPlansMissingFromCache() {
+        // Arrange
+        BroadbandPlan cached = BroadbandPlan.builder().planId("plan1").price("299.0").build();
+        when(broadbandRedis.getPlanDetails(eq("Broadband"), any())).thenReturn(Map.of("plan1", cached));
+        PartialBatchDynamoDb standIn = new PartialBatchDynamoDb(List.of("plan1", "plan2", "plan3"), 0);
+        SubscriptionFeignPlanService service = serviceWith(standIn, Runnable::run);
+        ReflectionTestUtils.setField(service, "broadbandRedis", broadbandRedis);
+
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO = service.getAllPlanByPlanIdList(List.of("plan1", "plan2", "plan3"), "Broadband");
+
+        // Assert
+        assertEquals(3, responseDTO.getMobilePlans().size());
+        assertSame(cached, responseDTO.getMobilePlans().get("plan1"));
+        assertEquals(1, standIn.calls.get());
+        assertEquals(2, standIn.maxKeysPerCall.get());
+        ArgumentCaptor<Collection<BroadbandPlan>> stored = ArgumentCaptor.forClass(Collection.class);
+        verify(broadbandRedis).addPlanDetails(eq("Broadband"), stored.capture());
+        assertEquals(2, stored.getValue().size());
+    }
+
+    @Test
+    void shouldWritePlansToCacheOnRefreshExecutor() {
+        // Arrange
+        Queue<Runnable> writes = new ArrayDeque<>();
+        SubscriptionFeignPlanService service = serviceWith(new PartialBatchDynamoDb(List.of("plan1"), 0), Runnable::run);
+        ReflectionTestUtils.setField(service, "broadbandRedis", broadbandRedis);
+        ReflectionTestUtils.setField(service, "planRefreshExecutor", (Executor) writes::add);
+
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO = service.getAllPlanByPlanIdList(List.of("plan1"), "Broadband");
 
+        // Assert
+        assertEquals(1, responseDTO.getMobilePlans().size());
+        verify(broadbandRedis, never()).addPlanDetails(any(), any());
+        writes.remove().run();
+        verify(broadbandRedis).addPlanDetails(eq("Broadband"), any());
+    }
+
+    @Test
+    void shouldNotCallDynamoDbWhenEveryPlanIsCached() {
+        // Arrange
+        BroadbandPlan cached = BroadbandPlan.builder().planId("plan1").build();
+        when(broadbandRedis.getPlanDetails(eq("Broadband"), any())).thenReturn(Map.of("plan1", cached));
+
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO = subscriptionFeignPlanService.getAllPlanByPlanIdList(List.of("plan1"), "Broadband");
+
+        // Assert
+        assertEquals(1, responseDTO.getMobilePlans().size());
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    void shouldFallBackToDynamoDbWhenCacheIsDown() {
+        // Arrange
+        when(broadbandRedis.getPlanDetails(any(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        doThrow(new RedisConnectionFailureException("down")).when(broadbandRedis).addPlanDetails(any(), any());
+        PartialBatchDynamoDb standIn = new PartialBatchDynamoDb(List.of("plan1"), 0);
+        SubscriptionFeignPlanService service = serviceWith(standIn, Runnable::run);
+        ReflectionTestUtils.setField(service, "broadbandRedis", broadbandRedis);
+
+        // Act
+        ErrorResponseDTO.SubscriptionResponseDTO responseDTO = service.getAllPlanByPlanIdList(List.of("plan1"), "Broadband");
+
+        // Assert
+        assertEquals(1, responseDTO.getMobilePlans().size());
+    }
+
+    @Test
+    void shouldReadThroughAsyncClientWithoutBlockingCaller() {
+        // Arrange
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        CompletableFuture<BatchGetItemResponse> pending = new CompletableFuture<>();
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class))).thenReturn(pending);
+        ReflectionTestUtils.setField(subscriptionFeignPlanService, "dynamoDbAsyncClient", asyncClient);
+
+        // Act
+        CompletableFuture<ErrorResponseDTO.SubscriptionResponseDTO> future =
+                subscriptionFeignPlanService.getAllPlanByPlanIdListAsync(List.of("plan1"), "Broadband");
+        boolean doneBeforeResponse = future.isDone();
+        pending.complete(BatchGetItemResponse.builder()
+                .responses(Map.of("plan-table", List.of(Map.of("PlanID", AttributeValue.builder().s("plan1").build()))))
+                .build());
+
+        // Assert
+        assertFalse(doneBeforeResponse);
+        assertEquals("plan1", future.join().getMobilePlans().get("plan1").getPlanId());
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    void shouldFailFutureWhenAsyncClientFails() {
+        // Arrange
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        when(asyncClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(DynamoDbException.builder().message("throttled").build()));
+        ReflectionTestUtils.setField(subscriptionFeignPlanService, "dynamoDbAsyncClient", asyncClient);
+
+        // Act
+        CompletableFuture<ErrorResponseDTO.SubscriptionResponseDTO> future =
+                subscriptionFeignPlanService.getAllPlanByPlanIdListAsync(List.of("plan1"), "Broadband");
+
+        // Assert
+        CompletionException thrown = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(DynamoDbException.class, thrown.getCause());
+    }
+
+    private static SubscriptionFeignPlanService serviceWith(DynamoDbClient client, Executor executor) {
+        SubscriptionFeignPlanService service = new SubscriptionFeignPlanService();
+        ReflectionTestUtils.setField(service, "dynamoDbClient", client);
+        ReflectionTestUtils.setField(service, "broadbandRedis", mock(BroadbandRedis.class));
+        ReflectionTestUtils.setField(service, "planBatchExecutor", executor);
+        ReflectionTestUtils.setField(service, "baseBackoffMs", 1L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 2L);
+        return service;
+    }
+
+    /**
+     * Local stand-in for the plan table that behaves like a throttled DynamoDB: it rejects oversized or duplicate
+     * batches and answers only half of each batch, returning the rest as UnprocessedKeys until a key has been asked for
+     * a number of times.
+     */
+    private static class PartialBatchDynamoDb implements DynamoDbClient {
+
+        private final Set<String> planIds;
+        private final int partialRounds;
+        private final Map<String, AtomicInteger> askedByKey = new ConcurrentHashMap<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger maxKeysPerCall = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        PartialBatchDynamoDb(Collection<String> planIds, int partialRounds) {
+            this.planIds = new HashSet<>(planIds);
+            this.partialRounds = partialRounds;
+        }
+
+        @Override
+        public BatchGetItemResponse batchGetItem(BatchGetItemRequest request) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                // a little latency, so chunks that are allowed to overlap do
+                Thread.sleep(5);
+                return answer(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw DynamoDbException.builder().message("interrupted").build();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private BatchGetItemResponse answer(BatchGetItemRequest request) {
+            calls.incrementAndGet();
+            List<Map<String, AttributeValue>> keys = request.requestItems().get("plan-table").keys();
+            maxKeysPerCall.accumulateAndGet(keys.size(), Math::max);
+            Set<String> seen = new HashSet<>();
+            for (Map<String, AttributeValue> key : keys) {
+                if (!seen.add(key.get("PlanID").s())) {
+                    throw DynamoDbException.builder().message("Provided list of item keys contains duplicates").build();
+                }
+            }
+            if (keys.size() > SubscriptionFeignPlanService.MAX_BATCH_KEYS) {
+                throw DynamoDbException.builder().message("Too many items requested for the BatchGetItem call").build();
+            }
+            // the first half of each batch is answered, the rest only once it has been asked for partialRounds times
+            List<Map<String, AttributeValue>> answered = new ArrayList<>();
+            List<Map<String, AttributeValue>> unprocessed = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                Map<String, AttributeValue> key = keys.get(i);
+                int asked = askedByKey.computeIfAbsent(key.get("PlanID").s(), k -> new AtomicInteger()).getAndIncrement();
+                if (i < keys.size() / 2 || asked >= partialRounds) {
+                    answered.add(key);
+                } else {
+                    unprocessed.add(key);
+                }
+            }
+            List<Map<String, AttributeValue>> items = new ArrayList<>();
+            for (Map<String, AttributeValue> key : answered) {
+                if (planIds.contains(key.get("PlanID").s())) {
+                    items.add(Map.of("PlanID", key.get("PlanID"), "Price", AttributeValue.builder().s("499").build()));
+                }
+            }
+            BatchGetItemResponse.Builder response = BatchGetItemResponse.builder().responses(Map.of("plan-table", items));
+            if (!unprocessed.isEmpty()) {
+                response.unprocessedKeys(Map.of("plan-table", KeysAndAttributes.builder().keys(unprocessed).build()));
+            }
+            return response.build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
 }
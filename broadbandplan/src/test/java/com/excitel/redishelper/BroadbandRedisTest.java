@@ -12,24 +12,42 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
+import org.springframework.data.redis.RedisSystemException;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.SerializationException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 class BroadbandRedisTest {
 
+    private static final CacheCodec CODEC = JacksonCacheCodec.smile();
+
     @InjectMocks
     private BroadbandRedis broadbandRedis;
     @Mock
     private RedisTemplate<String, String> redisTemplate;
 
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
     @Mock
     private RedisCacheManager redisCacheManager;
 
@@ -55,7 +73,7 @@ class BroadbandRedisTest {
         BroadbandRedis broadbandRedis = new BroadbandRedis();
 
         // Act and Assert
-        assertEquals("BroadbandPlans_null_null_Broadband_null_null_null_0_10",
+        assertEquals("BroadbandPlans_v0_null_null_Broadband_null_null_null_0_10",
                 broadbandRedis.createRedisKey(new RequestDTO()));
     }
 
@@ -79,7 +97,7 @@ class BroadbandRedisTest {
         String key = broadbandRedis.createRedisKey(params);
 
         // Assert
-        assertEquals("BroadbandPlans_active_planId_type_category_data_speed_0_10", key);
+        assertEquals("BroadbandPlans_v0_active_planId_type_category_data_speed_0_10", key);
     }
     @Test
     void testCreateRedisKey_NullValues() {
@@ -100,7 +118,7 @@ class BroadbandRedisTest {
         String key = broadbandRedis.createRedisKey(params);
 
         // Assert
-        assertEquals("BroadbandPlans_null_null_null_null_null_null_null_null", key);
+        assertEquals("BroadbandPlans_v0_null_null_null_null_null_null_null_null", key);
     }
 
     @Test
@@ -118,6 +136,11 @@ class BroadbandRedisTest {
         when(params.getPlanId()).thenReturn("42");
         when(params.getSpeed()).thenReturn("Speed");
         when(params.getType()).thenReturn("Type");
+        // a mock answers 0.0 for Double getters, which would read as a range filter
+        when(params.getMinSpeed()).thenReturn(null);
+        when(params.getMaxSpeed()).thenReturn(null);
+        when(params.getMinPrice()).thenReturn(null);
+        when(params.getMaxPrice()).thenReturn(null);
 
         // Act
         String actualCreateRedisKeyResult = broadbandRedis.createRedisKey(params);
@@ -131,7 +154,7 @@ class BroadbandRedisTest {
         verify(params).getPlanId();
         verify(params).getSpeed();
         verify(params).getType();
-        assertEquals("BroadbandPlans_Active_42_Type_Category_Data_Speed_2_1", actualCreateRedisKeyResult);
+        assertEquals("BroadbandPlans_v0_Active_42_Type_Category_Data_Speed_2_1", actualCreateRedisKeyResult);
     }
     @Test
     void testCreateRedisKey_EmptyValues() {
@@ -152,7 +175,38 @@ class BroadbandRedisTest {
         String key = broadbandRedis.createRedisKey(params);
 
         // Assert
-        assertEquals("BroadbandPlans_______0_10", key);
+        assertEquals("BroadbandPlans_v0_______0_10", key);
+    }
+
+    @Test
+    void testCreateRedisKey_WithRanges() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setMinSpeed(100.0);
+        params.setMaxPrice(999.0);
+
+        BroadbandRedis broadbandRedis = new BroadbandRedis();
+
+        // Act
+        String key = broadbandRedis.createRedisKey(params);
+
+        // Assert
+        assertEquals("BroadbandPlans_v0_null_null_Broadband_null_null_null_0_10_speed:100.0-null_price:null-999.0", key);
+    }
+
+    @Test
+    void testCreateRedisKey_WithNextToken() {
+        // Arrange
+        RequestDTO params = new RequestDTO();
+        params.setNextToken("QnJvYWRiYW5kCnAtMQ");
+
+        BroadbandRedis broadbandRedis = new BroadbandRedis();
+
+        // Act
+        String key = broadbandRedis.createRedisKey(params);
+
+        // Assert
+        assertEquals("BroadbandPlans_v0_null_null_Broadband_null_null_null_0_10_after:QnJvYWRiYW5kCnAtMQ", key);
     }
 
     @Test
@@ -174,7 +228,7 @@ class BroadbandRedisTest {
 
         // ArgumentCaptor to capture the argument passed to cache.put
         ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> valueCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> valueCaptor = ArgumentCaptor.forClass(byte[].class);
 
         // Act
         broadbandRedis.addBroadbandPlansCache("testKey", broadbandPlans);
@@ -183,7 +237,9 @@ class BroadbandRedisTest {
         // Verify that cache.put was called with the expected arguments
         verify(cache, times(1)).put(keyCaptor.capture(), valueCaptor.capture());
         assertEquals("testKey", keyCaptor.getValue());
-        assertEquals("[{\"planId\":null,\"planType\":null,\"price\":null,\"category\":null,\"validity\":null,\"ott\":null,\"voiceLimit\":null,\"sms\":null,\"data\":null,\"couponIds\":null,\"limit\":null,\"speed\":null,\"active\":null}]", valueCaptor.getValue());
+        CachedPlans storedEntry = CODEC.decodePlans(valueCaptor.getValue());
+        assertTrue(storedEntry.getStoredAt() > 0);
+        assertEquals(1, storedEntry.getPlans().size());
     }
 
     @Test
@@ -243,6 +299,29 @@ class BroadbandRedisTest {
         assertNull(plans);
     }
 
+    @Test
+    void testGetBroadbandPlansCache_UndecodableBytesAreAMiss() {
+        // Arrange
+        String key = "testKey";
+        Cache.ValueWrapper valueWrapper = mock(Cache.ValueWrapper.class);
+        when(valueWrapper.get()).thenReturn("not a cache entry".getBytes(StandardCharsets.UTF_8));
+
+        Cache cache = mock(Cache.class);
+        when(cache.get(key)).thenReturn(valueWrapper);
+
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(cache);
+
+        BroadbandRedis broadbandRedis = new BroadbandRedis();
+        broadbandRedis.setRedisCacheManager(redisCacheManager);
+
+        // Act
+        List<BroadbandPlan> plans = broadbandRedis.getBroadbandPlansCache(key);
+
+        // Assert
+        assertNull(plans);
+    }
+
     @Test
     void testAddBroadbandPlansCache_Success() throws Exception {
         // Arrange
@@ -274,9 +353,9 @@ class BroadbandRedisTest {
 
         assertEquals(key, keyCaptor.getValue());
 
-        String storedSerializedPlans = (String) valueCaptor.getValue();
-        ObjectMapper objectMapper = new ObjectMapper();
-        List<BroadbandPlan> storedPlans = objectMapper.readValue(storedSerializedPlans, new TypeReference<List<BroadbandPlan>>() {});
+        CachedPlans storedEntry = CODEC.decodePlans((byte[]) valueCaptor.getValue());
+        List<BroadbandPlan> storedPlans = storedEntry.getPlans();
+        assertTrue(storedEntry.getStoredAt() > 0);
 
         assertEquals(plansToAdd.size(), storedPlans.size());
         assertEquals(plansToAdd.get(0).getPlanId(), storedPlans.get(0).getPlanId());
@@ -292,7 +371,7 @@ class BroadbandRedisTest {
         expectedPlan.setPlanType("Plan1");
         expectedPlans.add(expectedPlan);
 
-        String serializedPlans = "[{\"planId\":\"1\",\"planType\":\"Plan1\"}]";
+        byte[] serializedPlans = CODEC.encodePlans(new CachedPlans(System.currentTimeMillis(), expectedPlans));
 
         Cache.ValueWrapper valueWrapper = mock(Cache.ValueWrapper.class);
         when(valueWrapper.get()).thenReturn(serializedPlans);
@@ -316,6 +395,35 @@ class BroadbandRedisTest {
         assertEquals(expectedPlans.get(0).getPlanType(), plans.get(0).getPlanType());
     }
 
+    @Test
+    void testGetBroadbandPlansCache_ReadsEntryWithStoreTime() {
+        // Arrange
+        Cache.ValueWrapper valueWrapper = mock(Cache.ValueWrapper.class);
+        when(valueWrapper.get()).thenReturn(CODEC.encodePlans(new CachedPlans(1000, List.of(BroadbandPlan.builder().planId("1").build()))));
+        Cache cache = mock(Cache.class);
+        when(cache.get("testKey")).thenReturn(valueWrapper);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(cache);
+
+        // Act
+        List<BroadbandPlan> plans = broadbandRedis.getBroadbandPlansCache("testKey");
+
+        // Assert
+        assertEquals("1", plans.get(0).getPlanId());
+        assertTrue(broadbandRedis.isBroadbandPlansStale("testKey"));
+    }
+
+    @Test
+    void testIsBroadbandPlansStale_FreshEntry() {
+        // Arrange
+        Cache cache = mock(Cache.class);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(cache);
+        broadbandRedis.addBroadbandPlansCache("testKey", List.of(new BroadbandPlan()));
+
+        // Act and Assert
+        assertFalse(broadbandRedis.isBroadbandPlansStale("testKey"));
+        assertFalse(broadbandRedis.isBroadbandPlansStale("missingKey"));
+    }
+
     @Test
     void testAddConnectionDetailCache_CacheIsNotNull() {
         // Arrange
@@ -335,7 +443,9 @@ class BroadbandRedisTest {
         broadbandRedis.addConnectionDetailCache(mobileNumber, status, connectionDetail);
 
         // Assert
-        verify(cache, times(1)).put(eq(key), eq(connectionDetail));
+        ArgumentCaptor<byte[]> valueCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(cache, times(1)).put(eq(key), valueCaptor.capture());
+        assertNotNull(CODEC.decodeConnection(valueCaptor.getValue()));
     }
 
     @Test
@@ -347,7 +457,7 @@ class BroadbandRedisTest {
         BroadbandConnection expectedConnectionDetail = new BroadbandConnection();
 
         Cache.ValueWrapper cachedConnectionDetailWrapper = mock(Cache.ValueWrapper.class);
-        when(cachedConnectionDetailWrapper.get()).thenReturn(expectedConnectionDetail);
+        when(cachedConnectionDetailWrapper.get()).thenReturn(CODEC.encodeConnection(expectedConnectionDetail));
 
         Cache cache = mock(Cache.class);
         when(cache.get(key)).thenReturn(cachedConnectionDetailWrapper);
@@ -363,7 +473,7 @@ class BroadbandRedisTest {
 
         // Assert
         assertNotNull(connectionDetail);
-        assertEquals(expectedConnectionDetail, connectionDetail);
+        assertEquals(expectedConnectionDetail.getConnectionId(), connectionDetail.getConnectionId());
     }
 
     @Test
@@ -414,25 +524,280 @@ class BroadbandRedisTest {
     @Test
     void testClearBroadbandCache() {
         // Arrange
-        Set<String> keys = new HashSet<>();
-        keys.add("BroadbandPlans:1");
-        keys.add("BroadbandPlans:2");
-        when(redisTemplate.keys(anyString())).thenReturn(keys);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(BroadbandRedis.GENERATION_KEY)).thenReturn(3L);
+        // Act
+        broadbandRedis.clearBroadbandCache();
+        // Assert
+        verify(valueOperations, times(1)).increment(BroadbandRedis.GENERATION_KEY);
+        verify(redisTemplate, never()).keys(anyString());
+        verify(redisTemplate, never()).delete(anyString());
+        assertTrue(broadbandRedis.createRedisKey(new RequestDTO()).startsWith("BroadbandPlans_v3_"));
+    }
+    @Test
+    void testClearBroadbandCache_FallsBackToUnlinkWhenIncrementFails() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(BroadbandRedis.GENERATION_KEY)).thenThrow(new RedisSystemException("down", null));
         // Act
         broadbandRedis.clearBroadbandCache();
         // Assert
-        verify(redisTemplate, times(1)).keys("BroadbandPlans:*");
-        verify(redisTemplate, times(2)).delete(anyString());
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
     }
+
     @Test
-    void testClearBroadbandCache_noKeys() {
+    void testClearBroadbandCache_PublishesInvalidation() {
         // Arrange
-        when(redisTemplate.keys(anyString())).thenReturn(null);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(BroadbandRedis.GENERATION_KEY)).thenReturn(1L);
         // Act
         broadbandRedis.clearBroadbandCache();
         // Assert
-        verify(redisTemplate, times(1)).keys("BroadbandPlans:*");
-        verify(redisTemplate, times(0)).delete(anyString());
+        verify(redisTemplate, times(1)).convertAndSend(BroadbandRedis.INVALIDATION_CHANNEL, "plans:1");
+    }
+
+    @Test
+    void testAcquireLoadLease() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("BroadbandPlans:lease:key"), anyString(), any(Duration.class)))
+                .thenReturn(true, false);
+        // Act
+        String first = broadbandRedis.acquireLoadLease("key", Duration.ofSeconds(5));
+        String second = broadbandRedis.acquireLoadLease("key", Duration.ofSeconds(5));
+        // Assert
+        assertNotNull(first);
+        assertNull(second);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReleaseLoadLease_ComparesToken() {
+        // Act
+        broadbandRedis.releaseLoadLease("key", "token");
+        // Assert
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("BroadbandPlans:lease:key")), eq("token"));
+    }
+
+    @Test
+    void testAwaitBroadbandPlansCache_ReturnsOnceStored() {
+        // Arrange
+        Cache mockCache = mock(Cache.class);
+        Cache.ValueWrapper mockValueWrapper = mock(Cache.ValueWrapper.class);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(mockCache);
+        when(mockCache.get("key")).thenReturn(null, mockValueWrapper);
+        when(mockValueWrapper.get()).thenReturn(CODEC.encodePlans(new CachedPlans(System.currentTimeMillis(), List.of())));
+        // Act
+        List<BroadbandPlan> plans = broadbandRedis.awaitBroadbandPlansCache("key", Duration.ofSeconds(2));
+        // Assert
+        assertNotNull(plans);
+        assertTrue(plans.isEmpty());
+    }
+
+    @Test
+    void testInvalidationMessage_AdvancesGeneration() {
+        // Arrange
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn("plans:7".getBytes(StandardCharsets.UTF_8));
+        // Act
+        broadbandRedis.onMessage(message, null);
+        // Assert
+        assertTrue(broadbandRedis.createRedisKey(new RequestDTO()).startsWith("BroadbandPlans_v7_"));
+        assertEquals(7, broadbandRedis.currentGeneration());
+    }
+
+    @Test
+    void testGenerationListener_NotifiedOncePerNewGeneration() {
+        // Arrange
+        List<Long> seen = new ArrayList<>();
+        broadbandRedis.addGenerationListener(seen::add);
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn("plans:7".getBytes(StandardCharsets.UTF_8));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(BroadbandRedis.GENERATION_KEY)).thenReturn("7", "9");
+        // Act
+        broadbandRedis.onMessage(message, null);
+        broadbandRedis.syncGeneration();
+        broadbandRedis.onMessage(message, null);
+        broadbandRedis.syncGeneration();
+        // Assert
+        assertEquals(List.of(7L, 9L), seen);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetPlanDetails_ReadsMissingPlansWithOneMget() {
+        // Arrange
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringCommands.mGet(any(byte[][].class)))
+                .thenReturn(Arrays.asList(CODEC.encodePlan(BroadbandPlan.builder().planId("p1").build()), null));
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<List<byte[]>>) invocation.getArgument(0)).doInRedis(connection));
+
+        // Act
+        Map<String, BroadbandPlan> first = broadbandRedis.getPlanDetails("Broadband", List.of("p1", "p2"));
+        Map<String, BroadbandPlan> second = broadbandRedis.getPlanDetails("Broadband", List.of("p1"));
+
+        // Assert
+        assertEquals(Set.of("p1"), first.keySet());
+        assertEquals("p1", second.get("p1").getPlanId());
+        verify(stringCommands, times(1)).mGet(any(byte[][].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAddPlanDetails_PipelinesWritesAndFillsNearCache() {
+        // Arrange
+        BroadbandPlan plan = BroadbandPlan.builder().planId("p1").build();
+
+        // Act
+        broadbandRedis.addPlanDetails("Broadband", List.of(plan));
+        Map<String, BroadbandPlan> found = broadbandRedis.getPlanDetails("Broadband", List.of("p1"));
+
+        // Assert
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+        assertSame(plan, found.get("p1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEvictPlanDetail_RemovesEntryAndNotifiesOtherNodes() {
+        // Arrange
+        broadbandRedis.addPlanDetails("Broadband", List.of(BroadbandPlan.builder().planId("p1").build()));
+
+        // Act
+        broadbandRedis.evictPlanDetail("Broadband", "p1");
+
+        // Assert
+        verify(redisTemplate).convertAndSend(BroadbandRedis.INVALIDATION_CHANNEL, "plan:Broadband:p1");
+        assertTrue(broadbandRedis.getPlanDetails("Broadband", List.of("p1")).isEmpty());
+    }
+
+    @Test
+    void testInvalidationMessage_DropsPlanDetailFromNearCache() {
+        // Arrange
+        broadbandRedis.addPlanDetails("Broadband", List.of(BroadbandPlan.builder().planId("p1").build()));
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn("plan:Broadband:p1".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        broadbandRedis.onMessage(message, null);
+
+        // Assert
+        assertTrue(broadbandRedis.getPlanDetails("Broadband", List.of("p1")).isEmpty());
+    }
+
+    @Test
+    void testSyncGeneration_ReadsCounterFromRedis() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(BroadbandRedis.GENERATION_KEY)).thenReturn("5");
+        // Act
+        broadbandRedis.syncGeneration();
+        // Assert
+        assertTrue(broadbandRedis.createRedisKey(new RequestDTO()).startsWith("BroadbandPlans_v5_"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPurgeStalePlans_UnlinksOnlyOlderGenerations() {
+        // Arrange
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        byte[] stale = "BroadbandPlans::BroadbandPlans_v0_null".getBytes(StandardCharsets.UTF_8);
+        byte[] current = "BroadbandPlans::BroadbandPlans_v2_null".getBytes(StandardCharsets.UTF_8);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(keyCommands.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(stale, current);
+        when(keyCommands.unlink(any(byte[][].class))).thenReturn(1L);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<Long>) invocation.getArgument(0)).doInRedis(connection));
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn("plans:2".getBytes(StandardCharsets.UTF_8));
+        broadbandRedis.onMessage(message, null);
+
+        // Act
+        broadbandRedis.purgeStalePlans();
+
+        // Assert
+        ArgumentCaptor<byte[][]> unlinked = ArgumentCaptor.forClass(byte[][].class);
+        verify(keyCommands, times(1)).unlink(unlinked.capture());
+        assertEquals(1, unlinked.getValue().length);
+        assertArrayEquals(stale, unlinked.getValue()[0]);
+    }
+
+    @Test
+    void testGetBroadbandPlansCache_ServedFromNearCacheAfterFirstRead() {
+        // Arrange
+        Cache mockCache = mock(Cache.class);
+        Cache.ValueWrapper mockValueWrapper = mock(Cache.ValueWrapper.class);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(mockCache);
+        when(mockCache.get("testKey")).thenReturn(mockValueWrapper);
+        when(mockValueWrapper.get()).thenReturn(CODEC.encodePlans(new CachedPlans(System.currentTimeMillis(),
+                List.of(BroadbandPlan.builder().planId("1").planType("Plan1").build()))));
+
+        // Act
+        List<BroadbandPlan> first = broadbandRedis.getBroadbandPlansCache("testKey");
+        List<BroadbandPlan> second = broadbandRedis.getBroadbandPlansCache("testKey");
+
+        // Assert
+        assertSame(first, second);
+        verify(mockCache, times(1)).get("testKey");
+    }
+
+    @Test
+    void testAddBroadbandPlansCache_PopulatesNearCache() {
+        // Arrange
+        Cache mockCache = mock(Cache.class);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(mockCache);
+        List<BroadbandPlan> broadbandPlans = List.of(BroadbandPlan.builder().planId("1").build());
+
+        // Act
+        broadbandRedis.addBroadbandPlansCache("testKey", broadbandPlans);
+        List<BroadbandPlan> cached = broadbandRedis.getBroadbandPlansCache("testKey");
+
+        // Assert
+        assertEquals("1", cached.get(0).getPlanId());
+        verify(mockCache, never()).get(anyString());
+    }
+
+    @Test
+    void testInvalidationMessage_ClearsNearCache() {
+        // Arrange
+        Cache mockCache = mock(Cache.class);
+        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(mockCache);
+        broadbandRedis.addBroadbandPlansCache("testKey", List.of(new BroadbandPlan()));
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn("plans".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        broadbandRedis.onMessage(message, null);
+
+        // Assert
+        assertNull(broadbandRedis.getBroadbandPlansCache("testKey"));
+        verify(mockCache, times(1)).get("testKey");
+    }
+
+    @Test
+    void testGetConnectionDetailsCache_ServedFromNearCacheAfterAdd() {
+        // Arrange
+        BroadbandConnection connectionDetail = new BroadbandConnection();
+        Cache mockCache = mock(Cache.class);
+        when(redisCacheManager.getCache("ConnectionDetail")).thenReturn(mockCache);
+
+        // Act
+        broadbandRedis.addConnectionDetailCache("1234567890", "Active", connectionDetail);
+        BroadbandConnection cached = broadbandRedis.getConnectionDetailsCache("1234567890", "Active");
+
+        // Assert
+        assertSame(connectionDetail, cached);
+        verify(mockCache, never()).get(anyString());
     }
 
     @Test
@@ -446,7 +811,7 @@ class BroadbandRedisTest {
         broadbandRedis.setRedisCacheManager(redisCacheManager);
         broadbandRedis.addBroadbandPlansCache("testKey", broadbandPlans);
 
-        verify(mockCache).put(anyString(), anyString());
+        verify(mockCache).put(anyString(), any(byte[].class));
     }
 
     @Test
@@ -456,7 +821,7 @@ class BroadbandRedisTest {
 
         when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(mockCache);
         when(mockCache.get("testKey")).thenReturn(mockValueWrapper);
-        when(mockValueWrapper.get()).thenReturn("[]"); // Return an empty JSON array
+        when(mockValueWrapper.get()).thenReturn(CODEC.encodePlans(new CachedPlans(System.currentTimeMillis(), List.of()))); // Return an empty entry
 
         BroadbandRedis broadbandRedis = new BroadbandRedis();
         broadbandRedis.setRedisCacheManager(redisCacheManager);
@@ -476,7 +841,7 @@ class BroadbandRedisTest {
         broadbandRedis.setRedisCacheManager(redisCacheManager);
         broadbandRedis.addConnectionDetailCache("1234567890", "active", connectionDetail);
 
-        verify(mockCache).put(anyString(), eq(connectionDetail));
+        verify(mockCache).put(anyString(), any(byte[].class));
     }
 
     @Test
@@ -487,13 +852,14 @@ class BroadbandRedisTest {
 
         when(redisCacheManager.getCache("ConnectionDetail")).thenReturn(mockCache);
         when(mockCache.get("1234567890active_connection_details")).thenReturn(mockValueWrapper);
-        when(mockValueWrapper.get()).thenReturn(connectionDetail);
+        when(mockValueWrapper.get()).thenReturn(CODEC.encodeConnection(connectionDetail));
 
         BroadbandRedis broadbandRedis = new BroadbandRedis();
         broadbandRedis.setRedisCacheManager(redisCacheManager);
         BroadbandConnection retrievedConnectionDetail = broadbandRedis.getConnectionDetailsCache("1234567890", "active");
 
-        assertEquals(connectionDetail, retrievedConnectionDetail);
+        assertNotNull(retrievedConnectionDetail);
+        assertEquals(connectionDetail.getConnectionId(), retrievedConnectionDetail.getConnectionId());
     }
 
 //    @Test
@@ -518,7 +884,7 @@ class BroadbandRedisTest {
 //
 //        when(redisCacheManager.getCache("BroadbandPlans")).thenReturn(mockCache);
 //        when(mockCache.get("testKey")).thenReturn(mockValueWrapper);
-//        when(mockValueWrapper.get()).thenReturn("[]");
+//        when(mockValueWrapper.get()).thenReturn(CODEC.encodePlans(new CachedPlans(System.currentTimeMillis(), List.of())));
 //        when(objectMapper.readValue(anyString(), any(TypeReference.class))).thenThrow(new JsonProcessingException("Test exception") { });
 //
 //        BroadbandRedis broadbandRedis = new BroadbandRedis();
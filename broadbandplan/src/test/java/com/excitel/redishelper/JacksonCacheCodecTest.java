@@ -0,0 +1,110 @@
+package com.excitel.redishelper;
+
+import com.excitel.model.BroadbandConnection;
+import com.excitel.model.BroadbandPlan;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonCacheCodecTest {
+
+    @Test
+    void shouldRoundTripPlansWithSmile() {
+        // Arrange
+        CacheCodec codec = JacksonCacheCodec.smile();
+        CachedPlans entry = new CachedPlans(1000, plans(3));
+
+        // Act
+        CachedPlans decoded = codec.decodePlans(codec.encodePlans(entry));
+
+        // Assert
+        assertEquals(1000, decoded.getStoredAt());
+        assertEquals(3, decoded.getPlans().size());
+        assertEquals("plan-1", decoded.getPlans().get(1).getPlanId());
+        assertEquals(List.of("Netflix", "Prime"), decoded.getPlans().get(1).getOtt());
+    }
+
+    @Test
+    void shouldRoundTripPlansWithJson() {
+        // Arrange
+        CacheCodec codec = JacksonCacheCodec.json();
+        CachedPlans entry = new CachedPlans(1000, plans(2));
+
+        // Act
+        CachedPlans decoded = codec.decodePlans(codec.encodePlans(entry));
+
+        // Assert
+        assertEquals(1000, decoded.getStoredAt());
+        assertEquals("Broadband", decoded.getPlans().get(0).getPlanType());
+    }
+
+    @Test
+    void shouldRoundTripSinglePlan() {
+        // Arrange
+        CacheCodec codec = JacksonCacheCodec.smile();
+        BroadbandPlan plan = plans(1).get(0);
+
+        // Act
+        BroadbandPlan decoded = codec.decodePlan(codec.encodePlan(plan));
+
+        // Assert
+        assertEquals("plan-0", decoded.getPlanId());
+        assertEquals("499", decoded.getPrice());
+        assertEquals(List.of("Netflix", "Prime"), decoded.getOtt());
+    }
+
+    @Test
+    void shouldRoundTripConnection() {
+        // Arrange
+        CacheCodec codec = JacksonCacheCodec.smile();
+        BroadbandConnection connection = BroadbandConnection.builder()
+                .connectionId("c-1").mobileNumber("9876543210").status("Active").city("Pune").build();
+
+        // Act
+        BroadbandConnection decoded = codec.decodeConnection(codec.encodeConnection(connection));
+
+        // Assert
+        assertEquals("c-1", decoded.getConnectionId());
+        assertEquals("9876543210", decoded.getMobileNumber());
+        assertEquals("Pune", decoded.getCity());
+    }
+
+    @Test
+    void shouldWriteSmallerPayloadsWithSmile() {
+        // Arrange
+        CachedPlans entry = new CachedPlans(1000, plans(50));
+
+        // Act
+        int smileSize = JacksonCacheCodec.smile().encodePlans(entry).length;
+        int jsonSize = JacksonCacheCodec.json().encodePlans(entry).length;
+
+        // Assert
+        assertTrue(smileSize < jsonSize);
+    }
+
+    @Test
+    void shouldThrowSerializationExceptionForUnreadablePayload() {
+        // Arrange
+        CacheCodec codec = JacksonCacheCodec.smile();
+        byte[] payload = "[1, 2".getBytes(StandardCharsets.UTF_8);
+
+        // Act and Assert
+        assertThrows(SerializationException.class, () -> codec.decodePlans(payload));
+    }
+
+    private static List<BroadbandPlan> plans(int count) {
+        List<BroadbandPlan> plans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            plans.add(BroadbandPlan.builder()
+                    .planId("plan-" + i).planType("Broadband").category("Home").price("499")
+                    .validity("28").speed("100").data("Unlimited").active("True")
+                    .ott(List.of("Netflix", "Prime")).build());
+        }
+        return plans;
+    }
+}
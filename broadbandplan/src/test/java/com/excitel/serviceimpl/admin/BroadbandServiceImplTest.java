@@ -4,8 +4,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-import com.excitel.exception.custom.NoPlanFoundException;
+import com.excitel.catalog.CatalogVersion;
+import com.excitel.catalog.PlanCatalog;
 import com.excitel.redishelper.BroadbandRedis;
+import com.excitel.exception.custom.NoPlanFoundException;
 import org.mockito.*;
 import com.excitel.dynamodbqueryhelp.QueryHelper;
 import com.excitel.dynamodbqueryhelp.QueryWrapper;
@@ -41,7 +43,13 @@ class BroadbandServiceImplTest {
     private BroadbandServiceImpl broadbandServiceImpl;
 
     @Mock
-    private BroadbandRedis  broadbandRedis;
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private BroadbandRedis broadbandRedis;
+
+    @Mock
+    private PlanCatalog planCatalog;
 
     public BroadbandServiceImplTest() {
         MockitoAnnotations.openMocks(this);
@@ -116,13 +124,16 @@ class BroadbandServiceImplTest {
         when(sdkHttpResponse.isSuccessful()).thenReturn(true);
         when(dynamoDbClient.getItem(getRequest)).thenReturn(GetItemResponse.builder().item(updatedItem).build());
         when(queryWrapper.mapToBroadbandPlan(updatedItem)).thenReturn(broadbandPlan);
+        when(catalogVersion.bump()).thenReturn(3L);
 
         // Act
         BroadbandPlan result = broadbandServiceImpl.addBroadbandPlan(broadbandPlan);
 
         // Assert
         assertEquals(broadbandPlan, result);
-        verify(broadbandRedis).clearBroadbandCache();
+        InOrder inOrder = inOrder(catalogVersion, planCatalog);
+        inOrder.verify(catalogVersion).bump();
+        inOrder.verify(planCatalog).publish(broadbandPlan, 3L);
     }
 
     @Test
@@ -147,7 +158,7 @@ class BroadbandServiceImplTest {
         String actualMessage = exception.getMessage();
 
         assertTrue(actualMessage.contains(expectedMessage));
-        verify(broadbandRedis, never()).clearBroadbandCache();  // Verify clearBroadbandCache() was not called
+        verify(catalogVersion, never()).bump();  // Verify the catalog version was not bumped
     }
 
     @Test
@@ -174,7 +185,8 @@ class BroadbandServiceImplTest {
 
         // Then
         assertEquals(broadbandPlan, result);
-        verify(broadbandRedis).clearBroadbandCache();
+        verify(broadbandRedis).evictPlanDetail(broadbandPlan.getPlanType(), planId);
+        verify(catalogVersion).bump();
     }
 
     @Test
@@ -245,7 +257,10 @@ class BroadbandServiceImplTest {
 
         // Then
         assertTrue(result);
-        verify(broadbandRedis).clearBroadbandCache();
+        verify(broadbandRedis).evictPlanDetail(broadbandPlan.getPlanType(), planId);
+        verify(catalogVersion).bump();
+        verify(planCatalog).publish(eq(broadbandPlan), anyLong());
+        assertEquals("False", broadbandPlan.getActive());
     }
 
 
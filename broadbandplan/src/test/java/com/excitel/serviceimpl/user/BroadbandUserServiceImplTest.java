@@ -5,8 +5,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.excitel.catalog.PlanCatalog;
+import com.excitel.catalog.PlanCatalogSnapshot;
 import com.excitel.dto.RequestDTO;
+import com.excitel.dynamodbqueryhelp.PageTokenCodec;
 import com.excitel.dynamodbqueryhelp.QueryConnectionHelper;
 import com.excitel.dynamodbqueryhelp.QueryHelper;
 import com.excitel.dynamodbqueryhelp.QueryWrapper;
@@ -21,17 +23,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
+import software.amazon.awssdk.services.dynamodb.paginators.QueryIterable;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
 
 class BroadbandUserServiceImplTest {
-    @Mock
-    private AmazonDynamoDB amazonDynamoDB;
-
     @Mock
     private DynamoDbClient dynamoDbClient;
 
@@ -45,11 +50,20 @@ class BroadbandUserServiceImplTest {
     private QueryWrapper queryWrapper;
     @Mock
     private QueryHelper queryHelper;
+    @Mock
+    private PlanCatalog planCatalog;
+    @Spy
+    private PageTokenCodec pageTokenCodec = new PageTokenCodec();
+    @Mock
+    private Executor planRefreshExecutor;
     @InjectMocks
     private BroadbandUserServiceImpl broadbandUserServiceImpl;
 
     public BroadbandUserServiceImplTest() {
         MockitoAnnotations.openMocks(this);
+        // page through the stubbed query calls, as the client's own paginator does
+        when(dynamoDbClient.queryPaginator(any(QueryRequest.class)))
+                .thenAnswer(invocation -> new QueryIterable(dynamoDbClient, invocation.getArgument(0)));
     }
 
     @Test
@@ -69,6 +83,26 @@ class BroadbandUserServiceImplTest {
         assertEquals(cachedPlans, result);
     }
 
+    @Test
+    void getBroadbandPlanWithQuery_fromPlanCatalog() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        PlanCatalogSnapshot snapshot = mock(PlanCatalogSnapshot.class);
+        List<BroadbandPlan> catalogPlans = List.of(new BroadbandPlan());
+
+        when(planCatalog.isCurrent()).thenReturn(true);
+        when(planCatalog.current()).thenReturn(snapshot);
+        when(snapshot.query(params, null)).thenReturn(catalogPlans);
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(catalogPlans, result);
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+        verify(broadbandRedis, never()).getBroadbandPlansCache(anyString());
+    }
+
     @Test
     public void whenCacheEmptyAndDatabaseHit_thenBroadbandPlanReturned() {
         // Given
@@ -173,10 +207,300 @@ void shouldBuildQueryRequestWithPlanId() {
         // Assert
         assertEquals("plan-table", request.tableName());
         assertEquals("PlanType = :type", request.keyConditionExpression());
-//        assertTrue(request.filterExpression().contains("Category = :category"));
+        assertTrue(request.filterExpression().contains("Category = :category"));
         assertTrue(request.filterExpression().contains("Active = :active"));
         assertTrue(request.filterExpression().contains("Speed = :speed"));
-//        assertTrue(request.filterExpression().contains("TotalData = :data"));
+        assertTrue(request.filterExpression().contains("TotalData = :data"));
+        assertEquals("Business", request.expressionAttributeValues().get(":category").s());
+        assertEquals("Unlimited", request.expressionAttributeValues().get(":data").s());
+    }
+
+    @Test
+    void shouldApplySpeedAndPriceRangesToQueriedPlans() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        params.setMinSpeed(100.0);
+        params.setMaxPrice(800.0);
+        Map<String, AttributeValue> slow = Map.of("PlanID", AttributeValue.builder().s("slow").build());
+        Map<String, AttributeValue> fast = Map.of("PlanID", AttributeValue.builder().s("fast").build());
+        Map<String, AttributeValue> pricey = Map.of("PlanID", AttributeValue.builder().s("pricey").build());
+        BroadbandPlan fastPlan = BroadbandPlan.builder().planId("fast").speed("200").price("599").build();
+
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache(any())).thenReturn(null);
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().items(slow, fast, pricey).build());
+        when(queryWrapper.mapToBroadbandPlan(slow)).thenReturn(BroadbandPlan.builder().planId("slow").speed("50").price("299").build());
+        when(queryWrapper.mapToBroadbandPlan(fast)).thenReturn(fastPlan);
+        when(queryWrapper.mapToBroadbandPlan(pricey)).thenReturn(BroadbandPlan.builder().planId("pricey").speed("500").price("1499").build());
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(List.of(fastPlan), result);
+    }
+
+    @Test
+    void shouldPushLimitAndStartKeyIntoQueryRequest() {
+        // Given
+        BroadbandPlan last = BroadbandPlan.builder().planType("Broadband").planId("p-10").build();
+        RequestDTO response = new RequestDTO();
+        response.setType("Broadband");
+        response.setOffset(20);
+        response.setLimit(10);
+        response.setNextToken(pageTokenCodec.encode(last));
+
+        // When
+        QueryRequest request = broadbandUserServiceImpl.buildQueryRequest(response);
+
+        // Then
+        assertEquals(10, request.limit());
+        assertEquals("Broadband", request.exclusiveStartKey().get("PlanType").s());
+        assertEquals("p-10", request.exclusiveStartKey().get("PlanID").s());
+    }
+
+    @Test
+    void shouldPushOffsetPlusLimitIntoQueryRequestWithoutToken() {
+        // Given
+        RequestDTO response = new RequestDTO();
+        response.setOffset(20);
+        response.setLimit(10);
+
+        // When
+        QueryRequest request = broadbandUserServiceImpl.buildQueryRequest(response);
+
+        // Then
+        assertEquals(30, request.limit());
+        assertFalse(request.hasExclusiveStartKey());
+    }
+
+    @Test
+    void shouldFollowLastEvaluatedKeyUntilPageIsFull() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        params.setActive("True");
+        params.setLimit(2);
+        Map<String, AttributeValue> first = Map.of("PlanID", AttributeValue.builder().s("a").build());
+        Map<String, AttributeValue> second = Map.of("PlanID", AttributeValue.builder().s("b").build());
+        Map<String, AttributeValue> lastKey = Map.of("PlanType", AttributeValue.builder().s("Broadband").build(),
+                "PlanID", AttributeValue.builder().s("a").build());
+
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache(any())).thenReturn(null);
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder().items(first).lastEvaluatedKey(lastKey).build())
+                .thenReturn(QueryResponse.builder().items(second).build());
+        when(queryWrapper.mapToBroadbandPlan(first)).thenReturn(BroadbandPlan.builder().planId("a").build());
+        when(queryWrapper.mapToBroadbandPlan(second)).thenReturn(BroadbandPlan.builder().planId("b").build());
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(2, result.size());
+        verify(dynamoDbClient, times(2)).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void shouldStopReadingOnceWindowIsFilled() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        params.setOffset(1);
+        params.setLimit(2);
+        Map<String, AttributeValue> lastKey = Map.of("PlanType", AttributeValue.builder().s("Broadband").build(),
+                "PlanID", AttributeValue.builder().s("e").build());
+
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache(any())).thenReturn(null);
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder().items(Collections.nCopies(5, new HashMap<>())).lastEvaluatedKey(lastKey).build());
+        when(queryWrapper.mapToBroadbandPlan(any())).thenReturn(new BroadbandPlan());
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(2, result.size());
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+        verify(queryWrapper, times(3)).mapToBroadbandPlan(any());
+    }
+
+    @Test
+    void shouldSkipOffsetAcrossResultPages() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        params.setOffset(2);
+        params.setLimit(2);
+        Map<String, AttributeValue> a = Map.of("PlanID", AttributeValue.builder().s("a").build());
+        Map<String, AttributeValue> b = Map.of("PlanID", AttributeValue.builder().s("b").build());
+        Map<String, AttributeValue> c = Map.of("PlanID", AttributeValue.builder().s("c").build());
+        Map<String, AttributeValue> lastKey = Map.of("PlanType", AttributeValue.builder().s("Broadband").build(),
+                "PlanID", AttributeValue.builder().s("b").build());
+
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache(any())).thenReturn(null);
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder().items(a, b).lastEvaluatedKey(lastKey).build())
+                .thenReturn(QueryResponse.builder().items(c).build());
+        when(queryWrapper.mapToBroadbandPlan(any())).thenAnswer(invocation -> {
+            Map<String, AttributeValue> item = invocation.getArgument(0);
+            return BroadbandPlan.builder().planId(item.get("PlanID").s()).build();
+        });
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(List.of("c"), result.stream().map(BroadbandPlan::getPlanId).toList());
+        verify(dynamoDbClient, times(2)).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void shouldReturnEmptyPageForOffsetPastTheEnd() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        params.setOffset(50);
+        params.setLimit(10);
+
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache(any())).thenReturn(null);
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().items(Collections.nCopies(3, new HashMap<>())).build());
+        when(queryWrapper.mapToBroadbandPlan(any())).thenReturn(new BroadbandPlan());
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void shouldIssueNextPageTokenOnlyForFullPage() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        params.setLimit(2);
+        BroadbandPlan last = BroadbandPlan.builder().planType("Broadband").planId("p-2").build();
+
+        // When
+        String fullPageToken = broadbandUserServiceImpl.getNextPageToken(params, List.of(new BroadbandPlan(), last));
+        String shortPageToken = broadbandUserServiceImpl.getNextPageToken(params, List.of(last));
+
+        // Then
+        assertEquals("p-2", pageTokenCodec.decodeKey(fullPageToken).getPlanId());
+        assertNull(shortPageToken);
+    }
+
+    @Test
+    void shouldRunOneBackingQueryPerKeyUnderConcurrentMisses() throws Exception {
+        // Given
+        int callers = 500;
+        RequestDTO params = new RequestDTO();
+        Map<String, List<BroadbandPlan>> cache = new ConcurrentHashMap<>();
+        when(broadbandRedis.createRedisKey(params)).thenReturn("hotKey");
+        when(broadbandRedis.getBroadbandPlansCache("hotKey")).thenAnswer(invocation -> cache.get("hotKey"));
+        doAnswer(invocation -> cache.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(broadbandRedis).addBroadbandPlansCache(eq("hotKey"), anyList());
+        when(queryWrapper.mapToBroadbandPlan(any())).thenReturn(new BroadbandPlan());
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return QueryResponse.builder().items(Collections.nCopies(3, new HashMap<>())).build();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<BroadbandPlan>>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+                }));
+            }
+            start.countDown();
+            for (Future<List<BroadbandPlan>> result : results) {
+                assertEquals(3, result.get(10, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+        verify(broadbandRedis, times(1)).addBroadbandPlansCache(eq("hotKey"), anyList());
+    }
+
+    @Test
+    void shouldWaitForOtherNodeWhenLoadLeaseIsTaken() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        List<BroadbandPlan> loadedElsewhere = List.of(new BroadbandPlan());
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "distributedLockEnabled", true);
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache("key")).thenReturn(null);
+        when(broadbandRedis.acquireLoadLease(eq("key"), any(Duration.class))).thenReturn(null);
+        when(broadbandRedis.awaitBroadbandPlansCache(eq("key"), any(Duration.class))).thenReturn(loadedElsewhere);
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(loadedElsewhere, result);
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void shouldReleaseLoadLeaseAfterQuerying() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "distributedLockEnabled", true);
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache("key")).thenReturn(null);
+        when(broadbandRedis.acquireLoadLease(eq("key"), any(Duration.class))).thenReturn("token");
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+
+        // When
+        broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+        verify(broadbandRedis).releaseLoadLease("key", "token");
+    }
+
+    @Test
+    void shouldServeStaleEntryAndRefreshInBackground() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        List<BroadbandPlan> stalePlans = List.of(new BroadbandPlan());
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "planRefreshExecutor", (Executor) Runnable::run);
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache("key")).thenReturn(stalePlans);
+        when(broadbandRedis.isBroadbandPlansStale("key")).thenReturn(true);
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().items(new HashMap<>()).build());
+        when(queryWrapper.mapToBroadbandPlan(any())).thenReturn(new BroadbandPlan());
+
+        // When
+        List<BroadbandPlan> result = broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        assertEquals(stalePlans, result);
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+        verify(broadbandRedis).addBroadbandPlansCache(eq("key"), anyList());
+    }
+
+    @Test
+    void shouldNotRefreshFreshEntry() {
+        // Given
+        RequestDTO params = new RequestDTO();
+        when(broadbandRedis.createRedisKey(params)).thenReturn("key");
+        when(broadbandRedis.getBroadbandPlansCache("key")).thenReturn(List.of(new BroadbandPlan()));
+
+        // When
+        broadbandUserServiceImpl.getBroadbandPlanWithQuery(params);
+
+        // Then
+        verify(planRefreshExecutor, never()).execute(any(Runnable.class));
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
     }
 
     @Test
@@ -454,4 +778,78 @@ void shouldBuildQueryRequestWithPlanId() {
 
         assertNotEquals(connection, null);
     }
+
+    @Test
+    void getConnectionDetailsForUserAsync_foundInCache() {
+        // Given
+        BroadbandConnection connectionCache = new BroadbandConnection();
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "dynamoDbAsyncClient", asyncClient);
+        when(broadbandRedis.getConnectionDetailsCache("1234567890", "Active")).thenReturn(connectionCache);
+
+        // When
+        CompletableFuture<BroadbandConnection> result = broadbandUserServiceImpl.getConnectionDetailsForUserAsync("1234567890", "Active");
+
+        // Then
+        assertTrue(result.isDone());
+        assertSame(connectionCache, result.join());
+        verifyNoInteractions(asyncClient);
+    }
+
+    @Test
+    void getConnectionDetailsForUserAsync_readsThroughAsyncClient() {
+        // Given
+        GetItemRequest request = GetItemRequest.builder().build();
+        Map<String, AttributeValue> item = Map.of("MobileNumber", AttributeValue.builder().s("1234567890").build());
+        BroadbandConnection expectedConnection = new BroadbandConnection();
+        CompletableFuture<GetItemResponse> pending = new CompletableFuture<>();
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "dynamoDbAsyncClient", asyncClient);
+        when(queryConnectionHelper.getItemByMobileNumber("1234567890", "Active")).thenReturn(request);
+        when(asyncClient.getItem(request)).thenReturn(pending);
+        when(queryWrapper.mapToBroadbandConnection(item)).thenReturn(expectedConnection);
+
+        // When
+        CompletableFuture<BroadbandConnection> result = broadbandUserServiceImpl.getConnectionDetailsForUserAsync("1234567890", "Active");
+        boolean doneBeforeResponse = result.isDone();
+        pending.complete(GetItemResponse.builder().item(item).build());
+
+        // Then
+        assertFalse(doneBeforeResponse);
+        assertSame(expectedConnection, result.join());
+        verify(broadbandRedis).addConnectionDetailCache("1234567890", "Active", expectedConnection);
+        verifyNoInteractions(dynamoDbClient);
+    }
+
+    @Test
+    void getConnectionDetailsForUserAsync_noConnection() {
+        // Given
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "dynamoDbAsyncClient", asyncClient);
+        when(asyncClient.getItem((GetItemRequest) any()))
+                .thenReturn(CompletableFuture.completedFuture(GetItemResponse.builder().item(Map.of()).build()));
+
+        // When
+        CompletableFuture<BroadbandConnection> result = broadbandUserServiceImpl.getConnectionDetailsForUserAsync("1234567890", "Active");
+
+        // Then
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(NoPlanFoundException.class, exception.getCause());
+    }
+
+    @Test
+    void getConnectionDetailsForUserAsync_databaseError() {
+        // Given
+        DynamoDbAsyncClient asyncClient = mock(DynamoDbAsyncClient.class);
+        ReflectionTestUtils.setField(broadbandUserServiceImpl, "dynamoDbAsyncClient", asyncClient);
+        when(asyncClient.getItem((GetItemRequest) any()))
+                .thenReturn(CompletableFuture.failedFuture(DynamoDbException.builder().message("unreachable").build()));
+
+        // When
+        CompletableFuture<BroadbandConnection> result = broadbandUserServiceImpl.getConnectionDetailsForUserAsync("1234567890", "Active");
+
+        // Then
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(DatabaseConnectionException.class, exception.getCause());
+    }
 }
@@ -0,0 +1,70 @@
+package com.excitel.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new SpanRingBuffer(5).capacity());
+        assertEquals(8, new SpanRingBuffer(8).capacity());
+        assertEquals(1, new SpanRingBuffer(0).capacity());
+    }
+
+    @Test
+    void shouldKeepMostRecentSpansOldestFirst() {
+        // Arrange
+        SpanRingBuffer buffer = new SpanRingBuffer(4);
+
+        // Act
+        for (int i = 1; i <= 6; i++) {
+            buffer.record(span(i));
+        }
+
+        // Assert
+        List<Span> spans = buffer.snapshot();
+        assertEquals(List.of(3L, 4L, 5L, 6L), spans.stream().map(Span::spanId).toList());
+        assertEquals(6, buffer.written());
+    }
+
+    @Test
+    void shouldAcceptConcurrentWriters() throws Exception {
+        // Arrange
+        SpanRingBuffer buffer = new SpanRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act
+        try {
+            for (int writer = 0; writer < 8; writer++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        buffer.record(span(i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(80_000, buffer.written());
+        assertEquals(1024, buffer.snapshot().size());
+    }
+
+    private static Span span(long id) {
+        return new Span(id, id, 0, "UserController.getPlans(..)", 0, 1000, null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.excitel.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TracingAspectTest {
+
+    private TracingAspect tracingAspect;
+
+    @BeforeEach
+    void setUp() {
+        tracingAspect = new TracingAspect();
+        tracingAspect.configure(0, 16);
+    }
+
+    @Test
+    void shouldOnlyProceedWhenSamplingIsOff() throws Throwable {
+        // Arrange
+        ProceedingJoinPoint call = joinPoint("UserController.getPlans(..)", "plans");
+
+        // Act
+        Object result = tracingAspect.trace(call);
+
+        // Assert
+        assertEquals("plans", result);
+        verify(call, never()).getSignature();
+        assertTrue(tracingAspect.getSpans().snapshot().isEmpty());
+    }
+
+    @Test
+    void shouldRecordNestedCallsUnderOneTrace() throws Throwable {
+        // Arrange
+        tracingAspect.setSampleRate(1);
+        ProceedingJoinPoint service = joinPoint("BroadbandUserServiceImpl.getBroadbandPlanWithQuery(..)", "plans");
+        ProceedingJoinPoint controller = joinPoint("UserController.getPlans(..)", null);
+        when(controller.proceed()).thenAnswer(invocation -> tracingAspect.trace(service));
+
+        // Act
+        tracingAspect.trace(controller);
+        tracingAspect.trace(service);
+
+        // Assert
+        List<Span> spans = tracingAspect.getSpans().snapshot();
+        assertEquals(3, spans.size());
+        Span child = spans.get(0);
+        Span root = spans.get(1);
+        Span nextTrace = spans.get(2);
+        assertEquals("BroadbandUserServiceImpl.getBroadbandPlanWithQuery(..)", child.name());
+        assertEquals("UserController.getPlans(..)", root.name());
+        assertEquals(root.traceId(), child.traceId());
+        assertEquals(root.spanId(), child.parentId());
+        assertEquals(0, root.parentId());
+        assertTrue(root.durationNanos() >= child.durationNanos());
+        assertNotEquals(root.traceId(), nextTrace.traceId());
+        assertEquals(0, nextTrace.parentId());
+    }
+
+    @Test
+    void shouldRecordFailedCall() throws Throwable {
+        // Arrange
+        tracingAspect.setSampleRate(1);
+        ProceedingJoinPoint call = joinPoint("AdminController.deletePlan(..)", null);
+        when(call.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> tracingAspect.trace(call));
+
+        // Assert
+        assertEquals("IllegalStateException", tracingAspect.getSpans().snapshot().get(0).error());
+    }
+
+    private static ProceedingJoinPoint joinPoint(String name, Object result) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.toShortString()).thenReturn(name);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+}